@@ -1,5 +1,8 @@
 package com.demo.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +13,390 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Stock stock = new Stock();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final Mongo mongo = new Mongo();
+
     // jhipster-needle-application-properties-property
+
+    public Stock getStock() {
+        return stock;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public Mongo getMongo() {
+        return mongo;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Stock {
+
+        private final WriteCombining writeCombining = new WriteCombining();
+
+        public WriteCombining getWriteCombining() {
+            return writeCombining;
+        }
+
+        public static class WriteCombining {
+
+            private boolean enabled = true;
+
+            private Duration window = Duration.ofMillis(2);
+
+            private int maxBatchSize = 256;
+
+            private int flushThreads = 4;
+
+            private Duration timeout = Duration.ofSeconds(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getWindow() {
+                return window;
+            }
+
+            public void setWindow(Duration window) {
+                this.window = window;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+
+            public int getFlushThreads() {
+                return flushThreads;
+            }
+
+            public void setFlushThreads(int flushThreads) {
+                this.flushThreads = flushThreads;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+    }
+
+    public static class Idempotency {
+
+        private Duration ttl = Duration.ofHours(24);
+
+        private Duration inProgressTimeout = Duration.ofMinutes(1);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getInProgressTimeout() {
+            return inProgressTimeout;
+        }
+
+        public void setInProgressTimeout(Duration inProgressTimeout) {
+            this.inProgressTimeout = inProgressTimeout;
+        }
+    }
+
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        private int maxBuckets = 100_000;
+
+        private List<Route> routes = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public List<Route> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        public static class Route {
+
+            private String pattern;
+
+            private int capacity;
+
+            private Duration period = Duration.ofMinutes(1);
+
+            public String getPattern() {
+                return pattern;
+            }
+
+            public void setPattern(String pattern) {
+                this.pattern = pattern;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public Duration getPeriod() {
+                return period;
+            }
+
+            public void setPeriod(Duration period) {
+                this.period = period;
+            }
+        }
+    }
+
+    public static class PasswordHashing {
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        private int queueCapacity = 64;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class MailOutbox {
+
+        private boolean enabled = true;
+
+        private int senders = 2;
+
+        private int batchSize = 50;
+
+        private Duration pollInterval = Duration.ofSeconds(10);
+
+        private Duration lease = Duration.ofMinutes(5);
+
+        private int maxAttempts = 8;
+
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSenders() {
+            return senders;
+        }
+
+        public void setSenders(int senders) {
+            this.senders = senders;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    public static class Mongo {
+
+        public enum Compressor {
+            ZSTD,
+            SNAPPY,
+            ZLIB,
+        }
+
+        private final Pool pool = new Pool();
+
+        private List<Compressor> compressors = new ArrayList<>();
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        private Duration readTimeout = Duration.ZERO;
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public List<Compressor> getCompressors() {
+            return compressors;
+        }
+
+        public void setCompressors(List<Compressor> compressors) {
+            this.compressors = compressors;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public static class Pool {
+
+            private int minSize = 0;
+
+            private int maxSize = 100;
+
+            private Duration maxWaitTime = Duration.ofMinutes(2);
+
+            private Duration maxConnectionIdleTime = Duration.ZERO;
+
+            public int getMinSize() {
+                return minSize;
+            }
+
+            public void setMinSize(int minSize) {
+                this.minSize = minSize;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getMaxWaitTime() {
+                return maxWaitTime;
+            }
+
+            public void setMaxWaitTime(Duration maxWaitTime) {
+                this.maxWaitTime = maxWaitTime;
+            }
+
+            public Duration getMaxConnectionIdleTime() {
+                return maxConnectionIdleTime;
+            }
+
+            public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+                this.maxConnectionIdleTime = maxConnectionIdleTime;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,14 +1,18 @@
 package com.demo.config;
 
+import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -25,14 +29,25 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ObjectProvider<VirtualThreadsConfiguration> virtualThreads;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ObjectProvider<VirtualThreadsConfiguration> virtualThreads) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.virtualThreads = virtualThreads;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
         log.debug("Creating Async Task Executor");
+        // the executor is owned, and shut down, by VirtualThreadsConfiguration
+        Optional<ExecutorService> virtualThreadExecutor = Optional
+            .ofNullable(virtualThreads.getIfAvailable())
+            .flatMap(VirtualThreadsConfiguration::getExecutor);
+        if (virtualThreadExecutor.isPresent()) {
+            log.info("Running @Async tasks on virtual threads");
+            return new ExceptionHandlingAsyncTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor.get()));
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
         executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
@@ -41,6 +41,9 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, com.demo.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.demo.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, com.demo.security.DomainUserDetailsService.USER_DETAILS_CACHE);
+            createCache(cm, com.demo.service.core.CategoryService.CATEGORY_STATISTICS_CACHE);
+            createCache(cm, com.demo.service.core.IdempotencyService.IDEMPOTENT_RESPONSES_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -1,9 +1,13 @@
 package com.demo.config;
 
+import com.mongodb.MongoCompressor;
 import io.mongock.runner.springboot.EnableMongock;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -26,6 +30,39 @@ import tech.jhipster.domain.util.JSR310DateConverters.ZonedDateTimeToDateConvert
 @EnableMongoAuditing(auditorAwareRef = "springSecurityAuditorAware")
 public class DatabaseConfiguration {
 
+    /**
+     * Connection pool, wire compression and socket timeouts of the Mongo client, from {@code application.mongo}.
+     * <p>
+     * They override the same options of {@code spring.data.mongodb.uri}. Command latencies and pool usage are recorded
+     * by the listeners that Spring Boot registers on the client ({@code management.metrics.mongo}).
+     * @param applicationProperties the application properties.
+     * @return the customizer of the client settings.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientSettingsCustomizer(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Mongo mongo = applicationProperties.getMongo();
+        ApplicationProperties.Mongo.Pool pool = mongo.getPool();
+        return builder -> {
+            builder
+                .applyToConnectionPoolSettings(settings ->
+                    settings
+                        .minSize(pool.getMinSize())
+                        .maxSize(pool.getMaxSize())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                )
+                .applyToSocketSettings(settings ->
+                    settings
+                        .connectTimeout((int) mongo.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) mongo.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                );
+            // keeps the compressors of the URI, if any, when none are configured
+            if (!mongo.getCompressors().isEmpty()) {
+                builder.compressorList(mongo.getCompressors().stream().map(DatabaseConfiguration::compressor).collect(Collectors.toList()));
+            }
+        };
+    }
+
     @Bean
     public ValidatingMongoEventListener validatingMongoEventListener() {
         return new ValidatingMongoEventListener(validator());
@@ -41,6 +78,19 @@ public class DatabaseConfiguration {
         List<Converter<?, ?>> converters = new ArrayList<>();
         converters.add(DateToZonedDateTimeConverter.INSTANCE);
         converters.add(ZonedDateTimeToDateConverter.INSTANCE);
+        converters.add(DecimalConverters.BigDecimalToDecimal128Converter.INSTANCE);
+        converters.add(DecimalConverters.Decimal128ToBigDecimalConverter.INSTANCE);
         return new MongoCustomConversions(converters);
     }
+
+    private static MongoCompressor compressor(ApplicationProperties.Mongo.Compressor compressor) {
+        switch (compressor) {
+            case ZSTD:
+                return MongoCompressor.createZstdCompressor();
+            case SNAPPY:
+                return MongoCompressor.createSnappyCompressor();
+            default:
+                return MongoCompressor.createZlibCompressor();
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.demo.config;
+
+import java.math.BigDecimal;
+import org.bson.types.Decimal128;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+/**
+ * Converters storing {@link BigDecimal} values as BSON {@code Decimal128}.
+ * <p>
+ * Without them Spring Data stores {@link BigDecimal} as a string, so range criteria compare lexicographically
+ * ({@code "100" < "9"}) and {@code $sum} cannot add the values up.
+ */
+public final class DecimalConverters {
+
+    private DecimalConverters() {}
+
+    @WritingConverter
+    public enum BigDecimalToDecimal128Converter implements Converter<BigDecimal, Decimal128> {
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(BigDecimal source) {
+            return new Decimal128(source);
+        }
+    }
+
+    @ReadingConverter
+    public enum Decimal128ToBigDecimalConverter implements Converter<Decimal128, BigDecimal> {
+        INSTANCE;
+
+        @Override
+        public BigDecimal convert(Decimal128 source) {
+            return source.bigDecimalValue();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.demo.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Resolver of the static resources whose file name holds a content hash, such as {@code main.1a2b3c4d.js}.
+ * <p>
+ * The content of such a file never changes, since a new build gives it a new name: it is cached by browsers without
+ * revalidation ({@code immutable}) for a year, and held in memory once read. Other resources are resolved unchanged.
+ * It must come before the {@link org.springframework.web.servlet.resource.EncodedResourceResolver}, so that the
+ * precompressed variant sent to a client is the one held in memory.
+ */
+public class FingerprintedResourceResolver extends AbstractResourceResolver {
+
+    public static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    // webpack's [contenthash:8] and [chunkhash:8] for scripts, and 20 hexadecimal digits for style sheets
+    private static final Pattern FINGERPRINTED = Pattern.compile(".+\\.[0-9a-f]{8,}(\\.chunk)?\\.(js|css)");
+
+    @Override
+    protected Resource resolveResourceInternal(
+        @Nullable HttpServletRequest request,
+        String requestPath,
+        List<? extends Resource> locations,
+        ResourceResolverChain chain
+    ) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || !isFingerprinted(requestPath)) {
+            return resource;
+        }
+        try {
+            return new FingerprintedResource(resource);
+        } catch (IOException e) {
+            logger.warn("Could not read " + resource + ", serving it from its location", e);
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    static boolean isFingerprinted(String requestPath) {
+        String filename = StringUtils.getFilename(requestPath);
+        return filename != null && FINGERPRINTED.matcher(filename).matches();
+    }
+
+    /**
+     * Resource held in memory, with the headers of the resource it was read from, if any, and immutable caching.
+     */
+    static class FingerprintedResource extends AbstractResource implements HttpResource {
+
+        private final Resource original;
+
+        private final byte[] content;
+
+        private final long lastModified;
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        FingerprintedResource(Resource original) throws IOException {
+            this.original = original;
+            this.content = StreamUtils.copyToByteArray(original.getInputStream());
+            this.lastModified = original.lastModified();
+            if (original instanceof HttpResource) {
+                headers.putAll(((HttpResource) original).getResponseHeaders());
+            }
+            headers.setCacheControl(IMMUTABLE);
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return content.length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return original.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return original.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return original.getFile();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "In-memory copy of " + original.getDescription();
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
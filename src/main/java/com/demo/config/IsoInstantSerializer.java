@@ -0,0 +1,83 @@
+package com.demo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.ser.InstantSerializer;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Serializer of {@link Instant} writing the same ISO-8601 text as {@link java.time.format.DateTimeFormatter#ISO_INSTANT}
+ * straight into the generator, without going through the formatter and an intermediate string.
+ * <p>
+ * Instants outside of years 0 to 9999, instants written as timestamps and properties with their own
+ * {@link com.fasterxml.jackson.annotation.JsonFormat} are written by {@link InstantSerializer}.
+ */
+public class IsoInstantSerializer extends InstantSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final IsoInstantSerializer INSTANCE = new IsoInstantSerializer();
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    // "9999-12-31T23:59:59.999999999Z"
+    private static final int MAX_LENGTH = 30;
+
+    protected IsoInstantSerializer() {
+        super();
+    }
+
+    @Override
+    public void serialize(Instant value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (_formatter != null || useTimestamp(provider)) {
+            super.serialize(value, generator, provider);
+            return;
+        }
+        long epochSecond = value.getEpochSecond();
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+        if (date.getYear() < 0 || date.getYear() > 9999) {
+            super.serialize(value, generator, provider);
+            return;
+        }
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        char[] buffer = new char[MAX_LENGTH];
+        writeDigits(buffer, 0, date.getYear(), 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, date.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, date.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, secondOfDay / 3600, 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, secondOfDay % 60, 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            // like ISO_INSTANT, write the fraction in groups of 3 digits, as many as needed
+            buffer[length++] = '.';
+            if (nano % 1_000_000 == 0) {
+                writeDigits(buffer, length, nano / 1_000_000, 3);
+                length += 3;
+            } else if (nano % 1_000 == 0) {
+                writeDigits(buffer, length, nano / 1_000, 6);
+                length += 6;
+            } else {
+                writeDigits(buffer, length, nano, 9);
+                length += 9;
+            }
+        }
+        buffer[length++] = 'Z';
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
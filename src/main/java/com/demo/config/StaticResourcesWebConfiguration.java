@@ -7,9 +7,17 @@ import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Serves the webpack bundle in production.
+ * <p>
+ * Resolved resources are cached in memory. The {@code .br} and {@code .gz} variants generated by the build are sent
+ * to the browsers accepting them, so the bundle is never compressed per request. Files with a content hash in their
+ * name are immutable: see {@link FingerprintedResourceResolver}.
+ */
 @Configuration
 @Profile({ JHipsterConstants.SPRING_PROFILE_PRODUCTION })
 public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
@@ -46,7 +54,12 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
     }
 
     protected void initializeResourceHandler(ResourceHandlerRegistration resourceHandlerRegistration) {
-        resourceHandlerRegistration.addResourceLocations(RESOURCE_LOCATIONS).setCacheControl(getCacheControl());
+        resourceHandlerRegistration
+            .addResourceLocations(RESOURCE_LOCATIONS)
+            .setCacheControl(getCacheControl())
+            .resourceChain(true)
+            .addResolver(new FingerprintedResourceResolver())
+            .addResolver(new EncodedResourceResolver());
     }
 
     protected CacheControl getCacheControl() {
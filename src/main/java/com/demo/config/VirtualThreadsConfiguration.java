@@ -0,0 +1,72 @@
+package com.demo.config;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Dispatches servlet request handling onto virtual threads when the {@code virtual-threads} profile is active.
+ * <p>
+ * Request threads spend most of their time blocked on the synchronous Mongo driver, so a thread per request is
+ * cheaper than a bounded Undertow worker pool. The project still compiles for Java 11: the executor is looked up
+ * reflectively and the profile falls back to the regular worker pool on a JDK without virtual threads.
+ * {@code @Async} tasks are switched over in {@link AsyncConfiguration} and share the same executor, which is shut down
+ * with the application context.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_VIRTUAL_THREADS)
+public class VirtualThreadsConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    private final Optional<ExecutorService> executor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadsUndertowCustomizer() {
+        return factory ->
+            executor.ifPresent(virtualThreadExecutor -> {
+                log.info("Dispatching Undertow servlet requests onto virtual threads");
+                factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(virtualThreadExecutor));
+            });
+    }
+
+    /**
+     * @return the virtual-thread executor, or empty on a JDK without virtual threads.
+     */
+    public Optional<ExecutorService> getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Stops accepting new tasks; running requests and {@code @Async} tasks are left to complete.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.ifPresent(ExecutorService::shutdown);
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when the running JDK supports it.
+     *
+     * @return the executor, or empty on a JDK without virtual threads.
+     */
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            log.warn(
+                "The {} profile is active but this JDK has no virtual threads, keeping platform threads",
+                Constants.SPRING_PROFILE_VIRTUAL_THREADS
+            );
+            return Optional.empty();
+        }
+    }
+}
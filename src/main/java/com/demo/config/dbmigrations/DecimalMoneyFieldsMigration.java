@@ -0,0 +1,61 @@
+package com.demo.config.dbmigrations;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Rewrites the money fields that were stored as strings into {@code Decimal128} and indexes them.
+ * <p>
+ * Documents are converted in batches, each batch committing on its own. Only documents still holding a string are
+ * selected, so a run interrupted half-way simply resumes where it stopped.
+ */
+@ChangeUnit(id = "money-fields-decimal128", order = "004", transactional = false)
+public class DecimalMoneyFieldsMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate template;
+
+    public DecimalMoneyFieldsMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        convertField("product", "price");
+        convertField("order", "total_amount");
+        template.getCollection("product").createIndex(Indexes.ascending("price"));
+        template.getCollection("order").createIndex(Indexes.ascending("total_amount"));
+    }
+
+    @RollbackExecution
+    public void rollback() {}
+
+    private void convertField(String collectionName, String field) {
+        MongoCollection<Document> collection = template.getCollection(collectionName);
+        Bson stringValue = Filters.type(field, "string");
+        List<Bson> toDecimal = List.of(new Document("$set", new Document(field, new Document("$toDecimal", "$" + field))));
+        List<Object> ids = new ArrayList<>(BATCH_SIZE);
+        do {
+            ids.clear();
+            collection
+                .find(stringValue)
+                .projection(Projections.include("_id"))
+                .limit(BATCH_SIZE)
+                .forEach(document -> ids.add(document.get("_id")));
+            if (!ids.isEmpty()) {
+                collection.updateMany(Filters.in("_id", ids), toDecimal);
+            }
+        } while (ids.size() == BATCH_SIZE);
+    }
+}
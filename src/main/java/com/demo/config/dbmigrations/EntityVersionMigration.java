@@ -0,0 +1,41 @@
+package com.demo.config.dbmigrations;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.util.List;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Initializes the optimistic locking {@code version} of existing documents.
+ * <p>
+ * Spring Data treats a versioned entity without a version as new and would insert it again on save, so every
+ * document written before versioning was introduced must start at version 0.
+ */
+@ChangeUnit(id = "entity-version", order = "006", transactional = false)
+public class EntityVersionMigration {
+
+    private static final List<String> VERSIONED_COLLECTIONS = List.of("product", "category", "customer", "order");
+
+    private final MongoTemplate template;
+
+    public EntityVersionMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        for (String collection : VERSIONED_COLLECTIONS) {
+            template.getCollection(collection).updateMany(Filters.exists("version", false), Updates.set("version", 0L));
+        }
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        for (String collection : VERSIONED_COLLECTIONS) {
+            template.getCollection(collection).updateMany(Filters.exists("version"), Updates.unset("version"));
+        }
+    }
+}
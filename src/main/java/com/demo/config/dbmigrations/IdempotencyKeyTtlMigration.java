@@ -0,0 +1,34 @@
+package com.demo.config.dbmigrations;
+
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.util.concurrent.TimeUnit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Expires idempotency records at their {@code expires_at} date, through a TTL index.
+ */
+@ChangeUnit(id = "idempotency-key-ttl", order = "007", transactional = false)
+public class IdempotencyKeyTtlMigration {
+
+    private final MongoTemplate template;
+
+    public IdempotencyKeyTtlMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        template
+            .getCollection("idempotency_key")
+            .createIndex(Indexes.ascending("expires_at"), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.getCollection("idempotency_key").dropIndex(Indexes.ascending("expires_at"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo.config.dbmigrations;
+
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Indexes {@code last_modified_date} of the collections whose list endpoints answer conditional requests, so the
+ * collection modification stamp is read from the index.
+ */
+@ChangeUnit(id = "last-modified-date-indexes", order = "005", transactional = false)
+public class LastModifiedDateIndexesMigration {
+
+    private final MongoTemplate template;
+
+    public LastModifiedDateIndexesMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        template.getCollection("product").createIndex(Indexes.descending("last_modified_date"));
+        template.getCollection("category").createIndex(Indexes.descending("last_modified_date"));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.getCollection("product").dropIndex(Indexes.descending("last_modified_date"));
+        template.getCollection("category").dropIndex(Indexes.descending("last_modified_date"));
+    }
+}
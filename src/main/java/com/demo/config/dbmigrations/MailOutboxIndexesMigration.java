@@ -0,0 +1,44 @@
+package com.demo.config.dbmigrations;
+
+import com.demo.domain.MailOutboxMessage;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.util.concurrent.TimeUnit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Indexes the lookup of the emails due in the outbox, and expires failed emails, which still hold activation and reset
+ * keys in their content, {@link MailOutboxMessage#FAILED_RETENTION_DAYS} days after they were queued.
+ */
+@ChangeUnit(id = "mail-outbox-indexes", order = "009", transactional = false)
+public class MailOutboxIndexesMigration {
+
+    private final MongoTemplate template;
+
+    public MailOutboxIndexesMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        template.getCollection("mail_outbox").createIndex(Indexes.ascending("status", "next_attempt_at"));
+        template
+            .getCollection("mail_outbox")
+            .createIndex(
+                Indexes.ascending("created_date"),
+                new IndexOptions()
+                    .expireAfter(MailOutboxMessage.FAILED_RETENTION_DAYS, TimeUnit.DAYS)
+                    .partialFilterExpression(Filters.eq("status", MailOutboxMessage.FAILED))
+            );
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.getCollection("mail_outbox").dropIndex(Indexes.ascending("status", "next_attempt_at"));
+        template.getCollection("mail_outbox").dropIndex(Indexes.ascending("created_date"));
+    }
+}
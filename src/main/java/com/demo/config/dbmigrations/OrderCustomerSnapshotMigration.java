@@ -0,0 +1,42 @@
+package com.demo.config.dbmigrations;
+
+import com.demo.domain.Customer;
+import com.demo.domain.Order;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Backfills the customer name and email snapshot of existing orders, one multi-document update per customer.
+ */
+@ChangeUnit(id = "order-customer-snapshot-backfill", order = "003")
+public class OrderCustomerSnapshotMigration {
+
+    private final MongoTemplate template;
+
+    public OrderCustomerSnapshotMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        Query customerQuery = new Query();
+        customerQuery.fields().include("firstName", "lastName", "email");
+        for (Customer customer : template.find(customerQuery, Customer.class)) {
+            template.updateMulti(
+                Query.query(Criteria.where("customerId").is(customer.getId())),
+                Update.update("customerName", customer.getFullName()).set("customerEmail", customer.getEmail()),
+                Order.class
+            );
+        }
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.updateMulti(new Query(), new Update().unset("customerName").unset("customerEmail"), Order.class);
+    }
+}
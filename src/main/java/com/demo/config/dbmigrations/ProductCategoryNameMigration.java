@@ -0,0 +1,42 @@
+package com.demo.config.dbmigrations;
+
+import com.demo.domain.Category;
+import com.demo.domain.Product;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Backfills the denormalized category name of existing products, one multi-document update per category.
+ */
+@ChangeUnit(id = "product-category-name-backfill", order = "002")
+public class ProductCategoryNameMigration {
+
+    private final MongoTemplate template;
+
+    public ProductCategoryNameMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        Query categoryQuery = new Query();
+        categoryQuery.fields().include("name");
+        for (Category category : template.find(categoryQuery, Category.class)) {
+            template.updateMulti(
+                Query.query(Criteria.where("categoryId").is(category.getId())),
+                Update.update("categoryName", category.getName()),
+                Product.class
+            );
+        }
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.updateMulti(new Query(), new Update().unset("categoryName"), Product.class);
+    }
+}
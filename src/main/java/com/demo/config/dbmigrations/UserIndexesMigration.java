@@ -0,0 +1,85 @@
+package com.demo.config.dbmigrations;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Indexes the user lookups done on login, registration, activation and password reset.
+ * <p>
+ * Emails are lowercased first, so that case-insensitive lookups become exact matches on the unique email index.
+ * The migration stops before creating any index if two users only differ by the case of their email; those accounts
+ * must be merged by hand.
+ */
+@ChangeUnit(id = "user-indexes", order = "008", transactional = false)
+public class UserIndexesMigration {
+
+    private static final String USER_COLLECTION = "jhi_user";
+
+    private static final List<String> INDEXED_FIELDS = List.of("login", "email", "activation_key", "reset_key");
+
+    private final MongoTemplate template;
+
+    public UserIndexesMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        MongoCollection<Document> users = template.getCollection(USER_COLLECTION);
+        users.updateMany(
+            Filters.regex("email", Pattern.compile("[A-Z]")),
+            List.of(new Document("$set", new Document("email", new Document("$toLower", "$email"))))
+        );
+        failOnDuplicates(users, "login");
+        failOnDuplicates(users, "email");
+
+        // Indexes previously created on these keys without the unique or sparse option would conflict
+        dropIndexes(users);
+        users.createIndex(Indexes.ascending("login"), new IndexOptions().unique(true));
+        users.createIndex(Indexes.ascending("email"), new IndexOptions().unique(true).sparse(true));
+        users.createIndex(Indexes.ascending("activation_key"), new IndexOptions().sparse(true));
+        users.createIndex(Indexes.ascending("reset_key"), new IndexOptions().sparse(true));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        dropIndexes(template.getCollection(USER_COLLECTION));
+    }
+
+    private void failOnDuplicates(MongoCollection<Document> users, String field) {
+        List<String> duplicates = users
+            .aggregate(
+                List.of(
+                    Aggregates.match(Filters.type(field, "string")),
+                    Aggregates.group("$" + field, Accumulators.sum("count", 1)),
+                    Aggregates.match(Filters.gt("count", 1))
+                )
+            )
+            .map(group -> group.getString("_id"))
+            .into(new ArrayList<>());
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Cannot create the unique " + field + " index, these values are used twice: " + duplicates);
+        }
+    }
+
+    private void dropIndexes(MongoCollection<Document> users) {
+        for (Document index : users.listIndexes().into(new ArrayList<>())) {
+            Document key = index.get("key", Document.class);
+            if (key.size() == 1 && INDEXED_FIELDS.contains(key.keySet().iterator().next())) {
+                users.dropIndex(index.getString("name"));
+            }
+        }
+    }
+}
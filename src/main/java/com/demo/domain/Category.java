@@ -2,6 +2,7 @@ package com.demo.domain;
 
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -34,6 +35,10 @@ public class Category extends AbstractAuditingEntity<String> {
     @Field("image_url")
     private String imageUrl;
 
+    @Version
+    @Field("version")
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -98,6 +103,14 @@ public class Category extends AbstractAuditingEntity<String> {
         return getClass().hashCode();
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Category{" +
@@ -2,6 +2,7 @@ package com.demo.domain;
 
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -49,6 +50,10 @@ public class Customer extends AbstractAuditingEntity<String> {
     @Field("active")
     private Boolean active = true;
 
+    @Version
+    @Field("version")
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -73,6 +78,10 @@ public class Customer extends AbstractAuditingEntity<String> {
         this.lastName = lastName;
     }
 
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -137,6 +146,14 @@ public class Customer extends AbstractAuditingEntity<String> {
         return getClass().hashCode();
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Customer{" +
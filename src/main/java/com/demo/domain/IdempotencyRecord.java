@@ -0,0 +1,119 @@
+package com.demo.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * The outcome of a request sent with an {@code Idempotency-Key} header, kept so that retries of the same request are
+ * answered with the first response instead of being executed again.
+ */
+@Document(collection = "idempotency_key")
+public class IdempotencyRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    @Field("completed")
+    private boolean completed;
+
+    @Field("response_unavailable")
+    private boolean responseUnavailable;
+
+    @Field("response_status")
+    private int responseStatus;
+
+    @Field("response_headers")
+    private Map<String, List<String>> responseHeaders;
+
+    @Field("response_body")
+    private String responseBody;
+
+    @Field("created_date")
+    private Instant createdDate = Instant.now();
+
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public boolean isResponseUnavailable() {
+        return responseUnavailable;
+    }
+
+    public void setResponseUnavailable(boolean responseUnavailable) {
+        this.responseUnavailable = responseUnavailable;
+    }
+
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotencyRecord{" +
+            "id='" + id + "'" +
+            ", completed=" + completed +
+            ", responseUnavailable=" + responseUnavailable +
+            ", responseStatus=" + responseStatus +
+            ", expiresAt='" + expiresAt + "'" +
+            "}";
+    }
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -19,6 +20,14 @@ public class Order extends AbstractAuditingEntity<String> {
     @Field("customer_id")
     private String customerId;
 
+    @Size(max = 201)
+    @Field("customer_name")
+    private String customerName;
+
+    @Size(max = 100)
+    @Field("customer_email")
+    private String customerEmail;
+
     @NotNull
     @Field("order_date")
     private Instant orderDate = Instant.now();
@@ -44,6 +53,10 @@ public class Order extends AbstractAuditingEntity<String> {
     @Field("notes")
     private String notes;
 
+    @Version
+    @Field("version")
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -60,6 +73,22 @@ public class Order extends AbstractAuditingEntity<String> {
         this.customerId = customerId;
     }
 
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
     public Instant getOrderDate() {
         return orderDate;
     }
@@ -124,11 +153,21 @@ public class Order extends AbstractAuditingEntity<String> {
         return getClass().hashCode();
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Order{" +
             "id='" + id + '\'' +
             ", customerId='" + customerId + '\'' +
+            ", customerName='" + customerName + '\'' +
+            ", customerEmail='" + customerEmail + '\'' +
             ", orderDate=" + orderDate +
             ", totalAmount=" + totalAmount +
             ", status='" + status + '\'' +
@@ -3,6 +3,7 @@ package com.demo.domain;
 import java.math.BigDecimal;
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -38,6 +39,10 @@ public class Product extends AbstractAuditingEntity<String> {
     @Field("category_id")
     private String categoryId;
 
+    @Size(max = 100)
+    @Field("category_name")
+    private String categoryName;
+
     @Size(max = 255)
     @Field("image_url")
     private String imageUrl;
@@ -45,6 +50,10 @@ public class Product extends AbstractAuditingEntity<String> {
     @Field("active")
     private Boolean active = true;
 
+    @Version
+    @Field("version")
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -93,6 +102,14 @@ public class Product extends AbstractAuditingEntity<String> {
         this.categoryId = categoryId;
     }
 
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
     public String getImageUrl() {
         return imageUrl;
     }
@@ -126,6 +143,14 @@ public class Product extends AbstractAuditingEntity<String> {
     }
 
     // prettier-ignore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Product{" +
@@ -135,6 +160,7 @@ public class Product extends AbstractAuditingEntity<String> {
             ", price=" + price +
             ", stockQuantity=" + stockQuantity +
             ", categoryId='" + categoryId + '\'' +
+            ", categoryName='" + categoryName + '\'' +
             ", imageUrl='" + imageUrl + '\'' +
             ", active=" + active +
             "}";
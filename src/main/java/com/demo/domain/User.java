@@ -30,7 +30,7 @@ public class User extends AbstractAuditingEntity<String> implements Serializable
     @NotNull
     @Pattern(regexp = Constants.LOGIN_REGEX)
     @Size(min = 1, max = 50)
-    @Indexed
+    @Indexed(unique = true)
     private String login;
 
     @JsonIgnore
@@ -48,7 +48,7 @@ public class User extends AbstractAuditingEntity<String> implements Serializable
 
     @Email
     @Size(min = 5, max = 254)
-    @Indexed
+    @Indexed(unique = true, sparse = true)
     private String email;
 
     private boolean activated = false;
@@ -63,11 +63,13 @@ public class User extends AbstractAuditingEntity<String> implements Serializable
 
     @Size(max = 20)
     @Field("activation_key")
+    @Indexed(sparse = true)
     @JsonIgnore
     private String activationKey;
 
     @Size(max = 20)
     @Field("reset_key")
+    @Indexed(sparse = true)
     @JsonIgnore
     private String resetKey;
 
@@ -122,8 +124,9 @@ public class User extends AbstractAuditingEntity<String> implements Serializable
         return email;
     }
 
+    // Lowercase the email before saving it in database, so it can be looked up through its unique index
     public void setEmail(String email) {
-        this.email = email;
+        this.email = StringUtils.lowerCase(email, Locale.ENGLISH);
     }
 
     public String getImageUrl() {
@@ -0,0 +1,11 @@
+package com.demo.repository;
+
+import com.demo.domain.MailOutboxMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB repository for the {@link MailOutboxMessage} entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends MongoRepository<MailOutboxMessage, String> {}
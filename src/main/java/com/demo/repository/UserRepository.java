@@ -3,6 +3,7 @@ package com.demo.repository;
 import com.demo.domain.User;
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
@@ -22,7 +23,18 @@ public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findOneByResetKey(String resetKey);
 
     @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
-    Optional<User> findOneByEmailIgnoreCase(String email);
+    Optional<User> findOneByEmail(String email);
+
+    /**
+     * Emails are stored lowercase, so a case-insensitive lookup is an exact match on the lowercase email, which uses
+     * the unique email index instead of a regex scan.
+     */
+    default Optional<User> findOneByEmailIgnoreCase(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return findOneByEmail(email.toLowerCase(Locale.ENGLISH));
+    }
 
     @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneByLogin(String login);
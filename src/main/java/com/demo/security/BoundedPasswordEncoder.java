@@ -0,0 +1,129 @@
+package com.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} running the hashing and verification of its delegate on a small bounded pool.
+ * <p>
+ * Password hashing is deliberately CPU-bound, so running it inline lets a login storm take every core and every
+ * request thread. Here at most {@code threads} hashes run at once and at most {@code queueCapacity} wait for their
+ * turn; any further request is rejected immediately with a {@link PasswordHashingRejectedException} instead of
+ * piling up, which keeps both CPU and request threads available for the rest of the API. Every caller of the
+ * {@code PasswordEncoder} bean goes through this pool: authentication as well as registration, password change and
+ * password reset.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    public static final String HASH_TIME_METER_NAME = "security.password-hashing.time";
+    public static final String QUEUE_WAIT_METER_NAME = "security.password-hashing.queue-wait";
+    public static final String QUEUE_SIZE_METER_NAME = "security.password-hashing.queue-size";
+    public static final String REJECTED_METER_NAME = "security.password-hashing.rejected";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTime;
+
+    private final Timer matchesTime;
+
+    private final Timer queueWait;
+
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        this.encodeTime = hashTimer("encode", registry);
+        this.matchesTime = hashTimer("matches", registry);
+        this.queueWait =
+            Timer.builder(QUEUE_WAIT_METER_NAME).description("Time a password hash waits for a hashing thread").register(registry);
+        this.rejected =
+            Counter
+                .builder(REJECTED_METER_NAME)
+                .description("Password hashes rejected because the hashing queue was full")
+                .baseUnit("requests")
+                .register(registry);
+        Gauge
+            .builder(QUEUE_SIZE_METER_NAME, executor, pool -> pool.getQueue().size())
+            .description("Number of password hashes waiting for a hashing thread")
+            .register(registry);
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry registry) {
+        return Timer
+            .builder(HASH_TIME_METER_NAME)
+            .description("Time spent hashing or verifying a password")
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTime, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTime, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer hashTime, Callable<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result =
+                executor.submit(() -> {
+                    queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                    return hashTime.recordCallable(hash);
+                });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException();
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,86 @@
+package com.demo.security;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Immutable {@link UserDetails} of an activated user, safe to share between authentications.
+ * <p>
+ * Unlike {@link org.springframework.security.core.userdetails.User}, it does not implement
+ * {@link org.springframework.security.core.CredentialsContainer}, so the authentication manager cannot erase the
+ * password of the cached instance after a successful login.
+ */
+final class DomainUserDetails implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String username;
+
+    private final String password;
+
+    private final List<GrantedAuthority> authorities;
+
+    DomainUserDetails(String username, String password, List<GrantedAuthority> authorities) {
+        this.username = username;
+        this.password = password;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DomainUserDetails)) {
+            return false;
+        }
+        return username.equals(((DomainUserDetails) o).username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DomainUserDetails{username='" + username + "', authorities=" + authorities + "}";
+    }
+}
@@ -4,50 +4,119 @@ import com.demo.domain.Authority;
 import com.demo.domain.User;
 import com.demo.repository.UserRepository;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The built {@link UserDetails} of activated users are cached by lowercase login or email, so repeated
+ * authentications skip the database lookup. Entries are evicted by {@link #evict(User)} whenever the user changes.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements UserDetailsService {
 
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
+
+    /**
+     * Authorities are a handful of constants shared by every user, so each is only instantiated once.
+     */
+    private static final ConcurrentMap<String, GrantedAuthority> GRANTED_AUTHORITIES = new ConcurrentHashMap<>();
+
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final CacheManager cacheManager;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
     }
 
     @Override
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
+        String key = login.toLowerCase(Locale.ENGLISH);
+        Optional<Cache> cache = cache();
+        UserDetails cached = cache.map(c -> c.get(key, UserDetails.class)).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails userDetails = loadFromDatabase(login);
+        cache.ifPresent(c -> c.put(key, userDetails));
+        return userDetails;
+    }
+
+    /**
+     * Evicts the cached details of a user, under both its login and its email.
+     *
+     * @param user the user whose login, password, activation or authorities changed.
+     */
+    public void evict(User user) {
+        cache()
+            .ifPresent(c -> {
+                c.evict(user.getLogin().toLowerCase(Locale.ENGLISH));
+                if (user.getEmail() != null) {
+                    c.evict(user.getEmail().toLowerCase(Locale.ENGLISH));
+                }
+            });
+    }
+
+    /**
+     * Evicts the cached details of several users at once.
+     *
+     * @param users the users being removed.
+     */
+    @SuppressWarnings("unchecked")
+    public void evictAll(Collection<User> users) {
+        cache()
+            .ifPresent(c -> {
+                Set<String> keys = new HashSet<>();
+                for (User user : users) {
+                    keys.add(user.getLogin().toLowerCase(Locale.ENGLISH));
+                    if (user.getEmail() != null) {
+                        keys.add(user.getEmail().toLowerCase(Locale.ENGLISH));
+                    }
+                }
+                if (c.getNativeCache() instanceof javax.cache.Cache) {
+                    ((javax.cache.Cache<Object, Object>) c.getNativeCache()).removeAll(keys);
+                } else {
+                    keys.forEach(c::evict);
+                }
+            });
+    }
+
+    private UserDetails loadFromDatabase(String login) {
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
             return userRepository
                 .findOneByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+                .orElseThrow(() -> new UserNotFoundException("User with email " + login + " was not found in the database"));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
-            .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+            .orElseThrow(() -> new UserNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private UserDetails createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
@@ -55,8 +124,12 @@ public class DomainUserDetailsService implements UserDetailsService {
             .getAuthorities()
             .stream()
             .map(Authority::getName)
-            .map(SimpleGrantedAuthority::new)
+            .map(name -> GRANTED_AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new))
             .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+        return new DomainUserDetails(user.getLogin(), user.getPassword(), grantedAuthorities);
+    }
+
+    private Optional<Cache> cache() {
+        return Optional.ofNullable(cacheManager.getCache(USER_DETAILS_CACHE));
     }
 }
@@ -0,0 +1,15 @@
+package com.demo.security;
+
+/**
+ * This exception is thrown when the password hashing queue is full and a hash cannot be scheduled.
+ * <p>
+ * It turns away requests under load, so it captures no stack trace.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException() {
+        super("Too many password hashes in progress", null, false, false);
+    }
+}
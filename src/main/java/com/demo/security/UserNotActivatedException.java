@@ -4,6 +4,8 @@ import org.springframework.security.core.AuthenticationException;
 
 /**
  * This exception is thrown in case of a not activated user trying to authenticate.
+ * <p>
+ * Like {@link UserNotFoundException}, it captures no stack trace.
  */
 public class UserNotActivatedException extends AuthenticationException {
 
@@ -16,4 +18,9 @@ public class UserNotActivatedException extends AuthenticationException {
     public UserNotActivatedException(String message, Throwable t) {
         super(message, t);
     }
+
+    @Override
+    public final Throwable fillInStackTrace() {
+        return this;
+    }
 }
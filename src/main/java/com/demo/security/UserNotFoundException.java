@@ -0,0 +1,22 @@
+package com.demo.security;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * This exception is thrown when a user trying to authenticate does not exist.
+ * <p>
+ * Failed logins are expected, and repeated by credential stuffing bots, so it captures no stack trace.
+ */
+public class UserNotFoundException extends UsernameNotFoundException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public final Throwable fillInStackTrace() {
+        return this;
+    }
+}
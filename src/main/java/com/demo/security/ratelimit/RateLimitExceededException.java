@@ -0,0 +1,24 @@
+package com.demo.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * This exception is thrown when a client sends more requests to a rate limited route than its bucket allows.
+ * <p>
+ * It is thrown for every request of a flood, so it captures no stack trace.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        super("Rate limit exceeded, retry after " + retryAfter, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,170 @@
+package com.demo.security.ratelimit;
+
+import com.demo.config.ApplicationProperties;
+import com.demo.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Limits the request rate of expensive routes with one token bucket per route and client.
+ * <p>
+ * Clients are identified by their login when the request is authenticated, and by their IP address otherwise, which
+ * is why this filter runs right after {@link com.demo.security.jwt.JWTFilter}. Rejected requests are answered with
+ * {@code 429 Too Many Requests} and a {@code Retry-After} header through the regular exception translation.
+ * <p>
+ * Each route keeps at most {@code application.rate-limit.max-buckets} buckets. When a route reaches that bound, full
+ * buckets are dropped since they are indistinguishable from new ones; clients that still find no room share a single
+ * overflow bucket, so memory stays bounded without letting new clients bypass the limit.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String REJECTED_METER_NAME = "security.rate-limit.rejected";
+    public static final String BUCKETS_METER_NAME = "security.rate-limit.buckets";
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final List<RouteLimiter> limiters;
+
+    private final HandlerExceptionResolver resolver;
+
+    public RateLimitFilter(ApplicationProperties.RateLimit properties, HandlerExceptionResolver resolver, MeterRegistry registry) {
+        this.resolver = resolver;
+        this.limiters =
+            properties.isEnabled()
+                ? properties
+                    .getRoutes()
+                    .stream()
+                    .map(route -> new RouteLimiter(route, properties.getMaxBuckets(), registry))
+                    .collect(Collectors.toList())
+                : List.of();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limiters.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        for (RouteLimiter limiter : limiters) {
+            if (limiter.matcher.matches(request)) {
+                long waitNanos = limiter.tryAcquire(request);
+                if (waitNanos > 0) {
+                    Duration retryAfter = Duration.ofNanos(waitNanos);
+                    log.debug("Rate limit of {} exceeded, retry after {}", limiter.pattern, retryAfter);
+                    resolver.resolveException(request, response, null, new RateLimitExceededException(retryAfter));
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static final class RouteLimiter {
+
+        private final String pattern;
+
+        private final RequestMatcher matcher;
+
+        private final long intervalNanos;
+
+        private final long periodNanos;
+
+        private final int maxBuckets;
+
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private final TokenBucket overflow = new TokenBucket(System.nanoTime());
+
+        private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+        private final Counter userRejections;
+
+        private final Counter ipRejections;
+
+        private RouteLimiter(ApplicationProperties.RateLimit.Route route, int maxBuckets, MeterRegistry registry) {
+            if (route.getCapacity() <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity of " + route.getPattern() + " must be positive");
+            }
+            this.pattern = route.getPattern();
+            this.matcher = new AntPathRequestMatcher(route.getPattern());
+            this.periodNanos = route.getPeriod().toNanos();
+            this.intervalNanos = periodNanos / route.getCapacity();
+            this.maxBuckets = maxBuckets;
+            this.userRejections = rejectionCounter("user", registry);
+            this.ipRejections = rejectionCounter("ip", registry);
+            Gauge
+                .builder(BUCKETS_METER_NAME, buckets, Map::size)
+                .description("Number of clients tracked by the rate limiter of a route")
+                .tag("route", pattern)
+                .register(registry);
+        }
+
+        private Counter rejectionCounter(String client, MeterRegistry registry) {
+            return Counter
+                .builder(REJECTED_METER_NAME)
+                .description("Requests rejected because the client exceeded the rate limit of the route")
+                .baseUnit("requests")
+                .tag("route", pattern)
+                .tag("client", client)
+                .register(registry);
+        }
+
+        private long tryAcquire(HttpServletRequest request) {
+            boolean authenticated = SecurityUtils.isAuthenticated();
+            String key = authenticated
+                ? "user:" + SecurityUtils.getCurrentUserLogin().orElse("")
+                : "ip:" + request.getRemoteAddr();
+            long now = System.nanoTime();
+            long waitNanos = bucket(key, now).tryConsume(now, intervalNanos, periodNanos);
+            if (waitNanos > 0) {
+                (authenticated ? userRejections : ipRejections).increment();
+            }
+            return waitNanos;
+        }
+
+        private TokenBucket bucket(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxBuckets) {
+                sweep(now);
+                if (buckets.size() >= maxBuckets) {
+                    return overflow;
+                }
+            }
+            return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+
+        private void sweep(long now) {
+            long last = lastSweep.get();
+            if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+                buckets.values().removeIf(bucket -> bucket.isFull(now));
+            }
+        }
+    }
+}
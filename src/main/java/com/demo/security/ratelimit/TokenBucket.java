@@ -0,0 +1,48 @@
+package com.demo.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, stored as the single timestamp at which the bucket would be full again.
+ * <p>
+ * Taking a token moves that timestamp forward by one refill interval; the request is allowed as long as the timestamp
+ * stays within one period of now, which is the same as having at least one token left. Keeping the whole state in one
+ * {@code long} lets a request be admitted with a single compare-and-set.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}.
+     * @param intervalNanos the time it takes to refill one token.
+     * @param periodNanos the time it takes to refill the whole bucket.
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until the next token is available.
+     */
+    long tryConsume(long nowNanos, long intervalNanos, long periodNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return whether the bucket is full, in which case it behaves exactly like a new one and can be dropped.
+     */
+    boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
@@ -1,6 +1,6 @@
 package com.demo.service;
 
-public class EmailAlreadyUsedException extends RuntimeException {
+public class EmailAlreadyUsedException extends StacklessException {
 
     private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,30 @@
+package com.demo.service;
+
+public class EntityNotFoundException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+
+    private final String id;
+
+    public EntityNotFoundException(String entityName, String id) {
+        super(null);
+        this.entityName = entityName;
+        this.id = id;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        // built on demand, as the exception is usually answered without being logged
+        return entityName + " not found with id " + id;
+    }
+}
@@ -0,0 +1,10 @@
+package com.demo.service;
+
+public class IdempotencyKeyInProgressException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyInProgressException() {
+        super("A request with the same idempotency key is still in progress!");
+    }
+}
@@ -0,0 +1,10 @@
+package com.demo.service;
+
+public class IdempotencyResponseUnavailableException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyResponseUnavailableException() {
+        super("A request with the same idempotency key was already executed, but its response was not stored!");
+    }
+}
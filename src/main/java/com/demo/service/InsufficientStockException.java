@@ -0,0 +1,17 @@
+package com.demo.service;
+
+public class InsufficientStockException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String productId;
+
+    public InsufficientStockException(String productId) {
+        super("Insufficient stock for product " + productId);
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+}
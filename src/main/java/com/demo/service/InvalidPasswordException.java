@@ -1,6 +1,6 @@
 package com.demo.service;
 
-public class InvalidPasswordException extends RuntimeException {
+public class InvalidPasswordException extends StacklessException {
 
     private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,17 @@
+package com.demo.service;
+
+/**
+ * Base of the exceptions thrown for expected errors, such as invalid input or a missing entity, which the web layer
+ * answers with a client error.
+ * <p>
+ * They are part of the normal flow of a request, so they capture no stack trace, whose capture would cost more than
+ * the rest of the error response.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
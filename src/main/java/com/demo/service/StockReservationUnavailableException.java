@@ -0,0 +1,17 @@
+package com.demo.service;
+
+public class StockReservationUnavailableException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String productId;
+
+    public StockReservationUnavailableException(String productId) {
+        super("Stock reservation of product " + productId + " did not complete in time");
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+}
@@ -1,6 +1,6 @@
 package com.demo.service;
 
-public class UsernameAlreadyUsedException extends RuntimeException {
+public class UsernameAlreadyUsedException extends StacklessException {
 
     private static final long serialVersionUID = 1L;
 
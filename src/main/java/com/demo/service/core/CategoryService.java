@@ -1,21 +1,35 @@
 package com.demo.service.core;
 
 import com.demo.domain.Category;
+import com.demo.domain.Product;
 import com.demo.repository.CategoryRepository;
+import com.demo.service.EntityNotFoundException;
 import com.demo.service.dto.CategoryDTO;
 import com.demo.service.mapper.CategoryMapper;
+import com.mongodb.client.result.UpdateResult;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +41,8 @@ import org.springframework.util.StringUtils;
 @Service
 public class CategoryService {
 
+    public static final String CATEGORY_STATISTICS_CACHE = "categoryStatistics";
+
     private final Logger log = LoggerFactory.getLogger(CategoryService.class);
 
     private final CategoryRepository categoryRepository;
@@ -35,10 +51,18 @@ public class CategoryService {
 
     private final MongoTemplate mongoTemplate;
 
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, MongoTemplate mongoTemplate) {
+    private final PartialUpdateService partialUpdateService;
+
+    public CategoryService(
+        CategoryRepository categoryRepository,
+        CategoryMapper categoryMapper,
+        MongoTemplate mongoTemplate,
+        PartialUpdateService partialUpdateService
+    ) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.mongoTemplate = mongoTemplate;
+        this.partialUpdateService = partialUpdateService;
     }
 
     /**
@@ -47,6 +71,7 @@ public class CategoryService {
      * @param categoryDTO the entity to save.
      * @return the persisted entity.
      */
+    @CacheEvict(cacheNames = CATEGORY_STATISTICS_CACHE, allEntries = true)
     public CategoryDTO save(CategoryDTO categoryDTO) {
         log.debug("Request to save Category : {}", categoryDTO);
         Category category = categoryMapper.toEntity(categoryDTO);
@@ -56,37 +81,60 @@ public class CategoryService {
 
     /**
      * Updates a category.
+     * <p>
+     * If the DTO carries a version, the update only succeeds when it still matches the stored version.
      *
      * @param categoryDTO the entity to update.
      * @return the persisted entity.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the category was modified since that version.
      */
+    @CacheEvict(cacheNames = CATEGORY_STATISTICS_CACHE, allEntries = true)
     public CategoryDTO update(CategoryDTO categoryDTO) {
         log.debug("Request to update Category : {}", categoryDTO);
         Category category = categoryRepository
             .findById(categoryDTO.getId())
-            .orElseThrow(() -> new IllegalStateException("Category not found with id " + categoryDTO.getId()));
+            .orElseThrow(() -> new EntityNotFoundException("category", categoryDTO.getId()));
+        String previousName = category.getName();
         categoryMapper.updateEntity(category, categoryDTO);
         category = categoryRepository.save(category);
+        if (!Objects.equals(previousName, category.getName())) {
+            propagateRename(category);
+        }
         return categoryMapper.toDto(category);
     }
 
     /**
-     * Partially updates a category.
+     * Partially updates a category, setting only the non-null fields of the DTO in a single atomic update.
      *
      * @param categoryDTO the entity to update partially.
      * @return the persisted entity.
      */
+    @CacheEvict(cacheNames = CATEGORY_STATISTICS_CACHE, allEntries = true)
     public Optional<CategoryDTO> partialUpdate(CategoryDTO categoryDTO) {
         log.debug("Request to partially update Category : {}", categoryDTO);
+        Optional<Category> category = partialUpdateService.update(
+            Category.class,
+            categoryDTO.getId(),
+            categoryDTO,
+            categoryMapper.toPartialUpdate(categoryDTO)
+        );
+        if (categoryDTO.getName() != null) {
+            category.ifPresent(this::propagateRename);
+        }
+        return category.map(categoryMapper::toDto);
+    }
 
-        return categoryRepository
-            .findById(categoryDTO.getId())
-            .map(existingCategory -> {
-                categoryMapper.partialUpdate(existingCategory, categoryDTO);
-                return existingCategory;
-            })
-            .map(categoryRepository::save)
-            .map(categoryMapper::toDto);
+    /**
+     * Rewrites the denormalized category name of every product in the category, in a single multi-document update.
+     * Products already carrying the current name are left untouched.
+     */
+    private void propagateRename(Category category) {
+        UpdateResult result = mongoTemplate.updateMulti(
+            Query.query(Criteria.where("categoryId").is(category.getId()).and("categoryName").ne(category.getName())),
+            Update.update("categoryName", category.getName()).set("lastModifiedDate", Instant.now()).inc("version", 1),
+            Product.class
+        );
+        log.debug("Propagated new name of Category {} to {} products", category.getId(), result.getModifiedCount());
     }
 
     /**
@@ -169,9 +217,15 @@ public class CategoryService {
      *
      * @param id the id of the entity.
      */
+    @CacheEvict(cacheNames = CATEGORY_STATISTICS_CACHE, allEntries = true)
     public void delete(String id) {
         log.debug("Request to delete Category : {}", id);
         categoryRepository.deleteById(id);
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("categoryId").is(id)),
+            new Update().unset("categoryName").set("lastModifiedDate", Instant.now()).inc("version", 1),
+            Product.class
+        );
     }
 
     /**
@@ -180,31 +234,102 @@ public class CategoryService {
      * @param ids list of identifiers.
      */
     @Transactional
+    @CacheEvict(cacheNames = CATEGORY_STATISTICS_CACHE, allEntries = true)
     public void deleteMany(List<String> ids) {
         log.debug("Request to bulk delete {} Categories", ids.size());
         categoryRepository.deleteAllById(ids);
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("categoryId").in(ids)),
+            new Update().unset("categoryName").set("lastModifiedDate", Instant.now()).inc("version", 1),
+            Product.class
+        );
     }
 
     /**
-     * Get statistics for categories.
+     * Get statistics for categories, including the product count, active product count and stock sum of every category.
+     * <p>
+     * Counting is done server-side; the result is cached and evicted on any category or product write. Since every
+     * caller shares the cached instance, the map and everything in it are unmodifiable.
      *
      * @return map containing statistics data.
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CATEGORY_STATISTICS_CACHE)
     public Map<String, Object> getStatistics() {
         log.debug("Request to get Category statistics");
-        List<Category> categories = categoryRepository.findAll();
-        long total = categories.size();
-        long active = categories.stream().filter(cat -> Boolean.TRUE.equals(cat.getActive())).count();
-        long inactive = total - active;
-        long withImage = categories.stream().filter(cat -> cat.getImageUrl() != null && !cat.getImageUrl().isBlank()).count();
+        Aggregation categoryAggregation = Aggregation.newAggregation(
+            Aggregation
+                .facet(Aggregation.count().as("count"))
+                .as("total")
+                .and(Aggregation.match(Criteria.where("active").is(true)), Aggregation.count().as("count"))
+                .as("active")
+                .and(Aggregation.match(Criteria.where("imageUrl").regex("\\S")), Aggregation.count().as("count"))
+                .as("withImage")
+        );
+        Document counts = mongoTemplate.aggregate(categoryAggregation, Category.class, Document.class).getUniqueMappedResult();
+
+        long total = facetCount(counts, "total");
+        long active = facetCount(counts, "active");
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalCategories", total);
         stats.put("activeCategories", active);
-        stats.put("inactiveCategories", inactive);
-        stats.put("categoriesWithImage", withImage);
-        return stats;
+        stats.put("inactiveCategories", total - active);
+        stats.put("categoriesWithImage", facetCount(counts, "withImage"));
+        stats.put("productsByCategory", getProductStatisticsByCategory());
+        return Map.copyOf(stats);
     }
-}
 
+    private List<Map<String, Object>> getProductStatisticsByCategory() {
+        // category_id is stored as a plain string while category ids are ObjectIds, so a $lookup would not match:
+        // products are grouped server-side and joined with a name-only projection of the (small) category collection.
+        Aggregation productAggregation = Aggregation.newAggregation(
+            Aggregation
+                .group("categoryId")
+                .count()
+                .as("productCount")
+                .sum(ConditionalOperators.when(Criteria.where("active").is(true)).then(1).otherwise(0))
+                .as("activeProductCount")
+                .sum("stockQuantity")
+                .as("totalStock")
+        );
+        Map<String, Document> productCounts = mongoTemplate
+            .aggregate(productAggregation, Product.class, Document.class)
+            .getMappedResults()
+            .stream()
+            .filter(document -> document.getString("_id") != null)
+            .collect(Collectors.toMap(document -> document.getString("_id"), Function.identity()));
+
+        Query categoryQuery = new Query();
+        categoryQuery.fields().include("name");
+        return mongoTemplate
+            .find(categoryQuery, Category.class)
+            .stream()
+            .map(category -> {
+                Document productCount = productCounts.getOrDefault(category.getId(), new Document());
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("categoryId", category.getId());
+                entry.put("categoryName", category.getName());
+                entry.put("productCount", numberValue(productCount.get("productCount")));
+                entry.put("activeProductCount", numberValue(productCount.get("activeProductCount")));
+                entry.put("totalStock", numberValue(productCount.get("totalStock")));
+                return Collections.unmodifiableMap(entry);
+            })
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private long facetCount(Document result, String facet) {
+        if (result == null) {
+            return 0L;
+        }
+        List<Document> documents = result.getList(facet, Document.class);
+        if (documents == null || documents.isEmpty()) {
+            return 0L;
+        }
+        return numberValue(documents.get(0).get("count"));
+    }
+
+    private long numberValue(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -2,20 +2,24 @@ package com.demo.service.core;
 
 import com.demo.domain.Customer;
 import com.demo.repository.CustomerRepository;
+import com.demo.service.EntityNotFoundException;
 import com.demo.service.dto.CustomerDTO;
 import com.demo.service.mapper.CustomerMapper;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.support.PageableExecutionUtils;
@@ -26,6 +30,10 @@ import org.springframework.util.StringUtils;
 @Service
 public class CustomerService {
 
+    private static final int STATISTICS_BREAKDOWN_LIMIT = 20;
+
+    private static final String NOT_BLANK = "\\S";
+
     private final Logger log = LoggerFactory.getLogger(CustomerService.class);
 
     private final CustomerRepository repository;
@@ -34,10 +42,22 @@ public class CustomerService {
 
     private final MongoTemplate mongoTemplate;
 
-    public CustomerService(CustomerRepository repository, CustomerMapper mapper, MongoTemplate mongoTemplate) {
+    private final OrderService orderService;
+
+    private final PartialUpdateService partialUpdateService;
+
+    public CustomerService(
+        CustomerRepository repository,
+        CustomerMapper mapper,
+        MongoTemplate mongoTemplate,
+        OrderService orderService,
+        PartialUpdateService partialUpdateService
+    ) {
         this.repository = repository;
         this.mapper = mapper;
         this.mongoTemplate = mongoTemplate;
+        this.orderService = orderService;
+        this.partialUpdateService = partialUpdateService;
     }
 
     public CustomerDTO save(CustomerDTO dto) {
@@ -51,22 +71,28 @@ public class CustomerService {
         log.debug("Request to update Customer : {}", dto);
         Customer entity = repository
             .findById(dto.getId())
-            .orElseThrow(() -> new IllegalStateException("Customer not found with id " + dto.getId()));
+            .orElseThrow(() -> new EntityNotFoundException("customer", dto.getId()));
+        String previousName = entity.getFullName();
+        String previousEmail = entity.getEmail();
         mapper.updateEntity(entity, dto);
         entity = repository.save(entity);
+        refreshOrderSnapshots(entity, previousName, previousEmail);
         return mapper.toDto(entity);
     }
 
     public Optional<CustomerDTO> partialUpdate(CustomerDTO dto) {
         log.debug("Request to partially update Customer : {}", dto);
-        return repository
-            .findById(dto.getId())
-            .map(existing -> {
-                mapper.partialUpdate(existing, dto);
-                return existing;
-            })
-            .map(repository::save)
-            .map(mapper::toDto);
+        Optional<Customer> customer = partialUpdateService.update(Customer.class, dto.getId(), dto, mapper.toPartialUpdate(dto));
+        if (dto.getFirstName() != null || dto.getLastName() != null || dto.getEmail() != null) {
+            customer.ifPresent(orderService::refreshCustomerSnapshot);
+        }
+        return customer.map(mapper::toDto);
+    }
+
+    private void refreshOrderSnapshots(Customer customer, String previousName, String previousEmail) {
+        if (!Objects.equals(previousName, customer.getFullName()) || !Objects.equals(previousEmail, customer.getEmail())) {
+            orderService.refreshCustomerSnapshot(customer);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -151,27 +177,78 @@ public class CustomerService {
         repository.deleteAllById(ids);
     }
 
+    /**
+     * Get statistics for customers.
+     * <p>
+     * All counters and breakdowns are computed by a single {@code $facet} aggregation, so only the
+     * aggregated figures leave the database.
+     *
+     * @return map containing statistics data.
+     */
     @Transactional(readOnly = true)
     public Map<String, Object> getStatistics() {
         log.debug("Request to get Customer statistics");
-        List<Customer> customers = repository.findAll();
-        long total = customers.size();
-        long active = customers.stream().filter(customer -> Boolean.TRUE.equals(customer.getActive())).count();
-        long inactive = total - active;
-        long withPhone = customers.stream().filter(customer -> customer.getPhone() != null && !customer.getPhone().isBlank()).count();
-        Set<String> uniqueCities = customers
-            .stream()
-            .map(Customer::getCity)
-            .filter(city -> city != null && !city.isBlank())
-            .collect(Collectors.toSet());
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation
+                .facet(Aggregation.count().as("count"))
+                .as("total")
+                .and(Aggregation.match(Criteria.where("active").is(true)), Aggregation.count().as("count"))
+                .as("active")
+                .and(Aggregation.match(Criteria.where("phone").regex(NOT_BLANK)), Aggregation.count().as("count"))
+                .as("withPhone")
+                .and(Aggregation.match(Criteria.where("city").regex(NOT_BLANK)), Aggregation.group("city"), Aggregation.count().as("count"))
+                .as("uniqueCities")
+                .and(
+                    Aggregation.match(Criteria.where("city").regex(NOT_BLANK)),
+                    Aggregation.group("city").count().as("count"),
+                    Aggregation.sort(Sort.by(Sort.Direction.DESC, "count")),
+                    Aggregation.limit(STATISTICS_BREAKDOWN_LIMIT)
+                )
+                .as("byCity")
+                .and(
+                    Aggregation.match(Criteria.where("country").regex(NOT_BLANK)),
+                    Aggregation.group("country").count().as("count"),
+                    Aggregation.sort(Sort.by(Sort.Direction.DESC, "count")),
+                    Aggregation.limit(STATISTICS_BREAKDOWN_LIMIT)
+                )
+                .as("byCountry")
+        );
+        Document result = mongoTemplate.aggregate(aggregation, Customer.class, Document.class).getUniqueMappedResult();
+
+        long total = facetCount(result, "total");
+        long active = facetCount(result, "active");
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalCustomers", total);
         stats.put("activeCustomers", active);
-        stats.put("inactiveCustomers", inactive);
-        stats.put("customersWithPhone", withPhone);
-        stats.put("uniqueCities", uniqueCities.size());
+        stats.put("inactiveCustomers", total - active);
+        stats.put("customersWithPhone", facetCount(result, "withPhone"));
+        stats.put("uniqueCities", facetCount(result, "uniqueCities"));
+        stats.put("customersByCity", facetBreakdown(result, "byCity"));
+        stats.put("customersByCountry", facetBreakdown(result, "byCountry"));
         return stats;
     }
-}
 
+    private long facetCount(Document result, String facet) {
+        if (result == null) {
+            return 0L;
+        }
+        List<Document> documents = result.getList(facet, Document.class);
+        if (documents == null || documents.isEmpty()) {
+            return 0L;
+        }
+        return ((Number) documents.get(0).get("count")).longValue();
+    }
+
+    private Map<String, Long> facetBreakdown(Document result, String facet) {
+        Map<String, Long> breakdown = new LinkedHashMap<>();
+        if (result == null) {
+            return breakdown;
+        }
+        List<Document> documents = result.getList(facet, Document.class);
+        if (documents != null) {
+            documents.forEach(document -> breakdown.put(document.getString("_id"), ((Number) document.get("count")).longValue()));
+        }
+        return breakdown;
+    }
+}
@@ -4,7 +4,6 @@ import com.demo.service.dto.ProductDTO;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Date;
-import java.util.List;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.Font;
@@ -16,7 +15,7 @@ import org.springframework.stereotype.Service;
 @Service
 public class ExcelExportService {
 
-    public byte[] exportProducts(List<ProductDTO> products) throws IOException {
+    public byte[] exportProducts(Iterable<ProductDTO> products) throws IOException {
         try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
             XSSFSheet sheet = workbook.createSheet("Products");
 
@@ -54,7 +53,7 @@ public class ExcelExportService {
         }
     }
 
-    private void populateRows(XSSFSheet sheet, List<ProductDTO> products, CreationHelper creationHelper) {
+    private void populateRows(XSSFSheet sheet, Iterable<ProductDTO> products, CreationHelper creationHelper) {
         CellStyle dateStyle = sheet.getWorkbook().createCellStyle();
         dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat("hh:mm dd-MM-yyyy"));
 
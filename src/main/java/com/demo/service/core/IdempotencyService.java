@@ -0,0 +1,254 @@
+package com.demo.service.core;
+
+import com.demo.config.ApplicationProperties;
+import com.demo.domain.IdempotencyRecord;
+import com.demo.repository.IdempotencyRecordRepository;
+import com.demo.security.SecurityUtils;
+import com.demo.service.IdempotencyKeyInProgressException;
+import com.demo.service.IdempotencyResponseUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Service executing create requests at most once per {@code Idempotency-Key}.
+ * <p>
+ * The first response to a key is stored in the {@code idempotency_key} collection, which expires records through a TTL
+ * index, and kept in a local cache. Retries are answered with that response. Concurrent duplicates on this instance wait
+ * for the running execution; a duplicate arriving while another instance is still executing the request is rejected.
+ * <p>
+ * When a request succeeds but its response cannot be stored, the key is still marked completed, without a response:
+ * retries are rejected rather than executed a second time.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    public static final String IDEMPOTENT_RESPONSES_CACHE = "idempotentResponses";
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationProperties.Idempotency properties;
+
+    private final ConcurrentMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+        IdempotencyRecordRepository idempotencyRecordRepository,
+        ObjectMapper objectMapper,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.properties = applicationProperties.getIdempotency();
+    }
+
+    /**
+     * Executes a request once per idempotency key, replaying the stored response to retries.
+     * <p>
+     * Only successful responses are stored. When the action throws or answers with an error, the key is released so the
+     * request can be retried.
+     *
+     * @param scope the operation the key belongs to, e.g. the entity name.
+     * @param key the {@code Idempotency-Key} header value; the action runs unguarded when it is blank.
+     * @param bodyType the response body type, used to read stored responses.
+     * @param action the request execution.
+     * @param <T> the response body type.
+     * @return the response of the first execution of the request.
+     * @throws IdempotencyKeyInProgressException if the same request is still being executed by another instance.
+     * @throws IdempotencyResponseUnavailableException if the request was executed but its response could not be stored.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (!StringUtils.hasText(key)) {
+            return action.get();
+        }
+        String id = recordId(scope, key);
+        IdempotencyRecord cached = cache().map(cache -> cache.get(id, IdempotencyRecord.class)).orElse(null);
+        if (cached != null) {
+            log.debug("Replaying cached response of {} request with idempotency key {}", scope, key);
+            return replay(cached, bodyType);
+        }
+
+        CompletableFuture<IdempotencyRecord> execution = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(id, execution);
+        if (running != null) {
+            log.debug("Waiting for running {} request with idempotency key {}", scope, key);
+            return replay(await(running), bodyType);
+        }
+        try {
+            Optional<IdempotencyRecord> stored = claim(id);
+            if (stored.isPresent()) {
+                log.debug("Replaying stored response of {} request with idempotency key {}", scope, key);
+                execution.complete(stored.get());
+                return replay(stored.get(), bodyType);
+            }
+            ResponseEntity<T> response = runClaimed(id, action);
+            execution.complete(store(id, response));
+            return response;
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, execution);
+        }
+    }
+
+    private <T> ResponseEntity<T> runClaimed(String id, Supplier<ResponseEntity<T>> action) {
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.deleteById(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Claims the key with an in-progress record, or returns the completed record of a previous execution.
+     */
+    private Optional<IdempotencyRecord> claim(String id) {
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setId(id);
+        claim.setExpiresAt(Instant.now().plus(properties.getInProgressTimeout()));
+        try {
+            idempotencyRecordRepository.insert(claim);
+            return Optional.empty();
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = idempotencyRecordRepository
+                .findById(id)
+                .filter(IdempotencyRecord::isCompleted)
+                .orElseThrow(IdempotencyKeyInProgressException::new);
+            cache().ifPresent(cache -> cache.put(id, existing));
+            return Optional.of(existing);
+        }
+    }
+
+    private IdempotencyRecord store(String id, ResponseEntity<?> response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id);
+        record.setCompleted(true);
+        record.setResponseStatus(response.getStatusCodeValue());
+        record.setResponseHeaders(new LinkedHashMap<>(response.getHeaders()));
+        record.setExpiresAt(Instant.now().plus(properties.getTtl()));
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            idempotencyRecordRepository.deleteById(id);
+            record.setResponseBody(writeBody(response.getBody()));
+            return record;
+        }
+        try {
+            record.setResponseBody(writeBody(response.getBody()));
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            markResponseUnavailable(record, e);
+        }
+        cache().ifPresent(cache -> cache.put(id, record));
+        return record;
+    }
+
+    /**
+     * Completes the key of a request that succeeded without its response. Releasing the key instead would let a retry
+     * execute the request again once the claim expires.
+     */
+    private void markResponseUnavailable(IdempotencyRecord record, RuntimeException cause) {
+        log.warn("Could not store the response of idempotent request {}, its retries will be rejected", record.getId(), cause);
+        record.setResponseUnavailable(true);
+        record.setResponseHeaders(new LinkedHashMap<>());
+        record.setResponseBody(null);
+        try {
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            log.error(
+                "Could not complete idempotent request {}, a retry after {} executes it again",
+                record.getId(),
+                properties.getInProgressTimeout(),
+                e
+            );
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, Class<T> bodyType) {
+        if (record.isResponseUnavailable()) {
+            throw new IdempotencyResponseUnavailableException();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : record.getResponseHeaders().entrySet()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        headers.set(REPLAYED_HEADER, Boolean.TRUE.toString());
+        return ResponseEntity.status(record.getResponseStatus()).headers(headers).body(readBody(record.getResponseBody(), bodyType));
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private String writeBody(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response body", e);
+        }
+    }
+
+    private <T> T readBody(String body, Class<T> bodyType) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, bodyType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not replay response body", e);
+        }
+    }
+
+    /**
+     * Keys are private to the user sending them, so two users can never replay each other's responses.
+     */
+    private String recordId(String scope, String key) {
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        return DigestUtils.md5DigestAsHex((login + "\n" + scope + "\n" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Optional<Cache> cache() {
+        return Optional.ofNullable(cacheManager.getCache(IDEMPOTENT_RESPONSES_CACHE));
+    }
+}
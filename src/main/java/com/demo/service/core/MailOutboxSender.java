@@ -0,0 +1,324 @@
+package com.demo.service.core;
+
+import com.demo.config.ApplicationProperties;
+import com.demo.domain.MailOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Sends the emails queued in the {@code mail_outbox} collection by {@link MailService}.
+ * <p>
+ * Senders claim due emails in batches by leasing them, and send each batch over a single SMTP connection. An email that
+ * cannot be sent is retried with an exponential backoff, up to {@code application.mail-outbox.max-attempts}. A sender
+ * dying mid-batch leaves its emails leased until the lease expires, after which they are sent again: delivery is at
+ * least once.
+ * <p>
+ * At most {@code application.mail-outbox.senders} batches are sent at a time by each instance. Senders poll the outbox
+ * every {@code poll-interval}, and are woken up when an email is queued on this instance.
+ */
+@Service
+public class MailOutboxSender {
+
+    public static final String SENT_METER_NAME = "mail.outbox.sent";
+    public static final String FAILED_METER_NAME = "mail.outbox.failed";
+    public static final String BATCH_SIZE_METER_NAME = "mail.outbox.batch-size";
+    public static final String SEND_TIME_METER_NAME = "mail.outbox.send";
+    public static final String PENDING_METER_NAME = "mail.outbox.pending";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxSender.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final ScheduledExecutorService senderExecutor;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter dropped;
+
+    private final DistributionSummary batchSize;
+
+    private final Timer sendTime;
+
+    public MailOutboxSender(
+        MongoTemplate mongoTemplate,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getMailOutbox();
+        this.sent = Counter.builder(SENT_METER_NAME).description("Emails sent from the outbox").baseUnit("emails").register(registry);
+        this.retried = failedCounter("retried", registry);
+        this.dropped = failedCounter("dropped", registry);
+        this.batchSize =
+            DistributionSummary
+                .builder(BATCH_SIZE_METER_NAME)
+                .description("Number of emails sent over one SMTP connection")
+                .baseUnit("emails")
+                .register(registry);
+        this.sendTime = Timer.builder(SEND_TIME_METER_NAME).description("Duration of the sending of a batch of emails").register(registry);
+        Gauge
+            .builder(PENDING_METER_NAME, this, MailOutboxSender::countPending)
+            .description("Emails waiting in the outbox")
+            .baseUnit("emails")
+            .register(registry);
+
+        if (properties.isEnabled()) {
+            this.senderExecutor =
+                Executors.newScheduledThreadPool(properties.getSenders(), new CustomizableThreadFactory("mail-outbox-sender-"));
+            long pollInterval = properties.getPollInterval().toMillis();
+            for (int i = 0; i < properties.getSenders(); i++) {
+                senderExecutor.scheduleWithFixedDelay(this::sendPendingQuietly, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            this.senderExecutor = null;
+        }
+    }
+
+    private Counter failedCounter(String outcome, MeterRegistry registry) {
+        return Counter
+            .builder(FAILED_METER_NAME)
+            .description("Failed email deliveries, retried later or dropped after the last attempt")
+            .tag("outcome", outcome)
+            .baseUnit("emails")
+            .register(registry);
+    }
+
+    /**
+     * Makes a sender drain the outbox now rather than at its next poll. Wake-ups arriving while one is pending are
+     * coalesced, so a burst of queued emails does not pile up tasks.
+     */
+    public void wakeUp() {
+        if (senderExecutor != null && wakeUpPending.compareAndSet(false, true)) {
+            senderExecutor.execute(() -> {
+                wakeUpPending.set(false);
+                sendPendingQuietly();
+            });
+        }
+    }
+
+    /**
+     * Sends the due emails of the outbox, batch after batch, until none is left.
+     *
+     * @return the number of emails sent.
+     */
+    public int sendPending() {
+        int sentCount = 0;
+        List<MailOutboxMessage> batch;
+        while (!(batch = claimBatch()).isEmpty()) {
+            sentCount += send(batch);
+        }
+        return sentCount;
+    }
+
+    private void sendPendingQuietly() {
+        try {
+            sendPending();
+        } catch (RuntimeException e) {
+            log.warn("Could not send the mail outbox", e);
+        }
+    }
+
+    /**
+     * Leases up to a batch of due emails. The ids are read first and leased with the due criteria repeated, so that
+     * emails claimed concurrently by another sender are left out.
+     */
+    private List<MailOutboxMessage> claimBatch() {
+        Instant now = Instant.now();
+        Criteria due = Criteria.where("status").is(MailOutboxMessage.PENDING).and("nextAttemptAt").lte(now).and("lockedUntil").lte(now);
+        Query candidates = Query.query(due).with(Sort.by("nextAttemptAt")).limit(properties.getBatchSize());
+        candidates.fields().include("id");
+        List<String> ids = mongoTemplate
+            .find(candidates, MailOutboxMessage.class)
+            .stream()
+            .map(MailOutboxMessage::getId)
+            .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String claim = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("id").in(ids).andOperator(due)),
+            new Update().set("lockedUntil", now.plus(properties.getLease())).set("claimedBy", claim),
+            MailOutboxMessage.class
+        );
+        return mongoTemplate.find(Query.query(Criteria.where("id").in(ids).and("claimedBy").is(claim)), MailOutboxMessage.class);
+    }
+
+    private int send(List<MailOutboxMessage> batch) {
+        List<MailOutboxMessage> sending = new ArrayList<>(batch.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+        Map<MailOutboxMessage, Exception> failed = new IdentityHashMap<>();
+        Map<MailOutboxMessage, Exception> undeliverable = new IdentityHashMap<>();
+        for (MailOutboxMessage outboxMessage : batch) {
+            try {
+                mimeMessages.add(toMimeMessage(outboxMessage));
+                sending.add(outboxMessage);
+            } catch (MessagingException e) {
+                // a message that cannot be built, e.g. because of an invalid address, never will
+                undeliverable.put(outboxMessage, e);
+            }
+        }
+
+        List<MailOutboxMessage> delivered = new ArrayList<>();
+        if (!sending.isEmpty()) {
+            batchSize.record(sending.size());
+            Timer.Sample sample = Timer.start();
+            try {
+                javaMailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+                delivered.addAll(sending);
+            } catch (MailSendException e) {
+                // the exception lists the messages that failed, the others went through
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                for (int i = 0; i < sending.size(); i++) {
+                    MimeMessage mimeMessage = mimeMessages.get(i);
+                    if (failedMessages.isEmpty() || failedMessages.containsKey(mimeMessage)) {
+                        failed.put(sending.get(i), failedMessages.getOrDefault(mimeMessage, e));
+                    } else {
+                        delivered.add(sending.get(i));
+                    }
+                }
+            } catch (MailException e) {
+                sending.forEach(outboxMessage -> failed.put(outboxMessage, e));
+            } finally {
+                sample.stop(sendTime);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            List<String> ids = delivered.stream().map(MailOutboxMessage::getId).collect(Collectors.toList());
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), MailOutboxMessage.class);
+            sent.increment(delivered.size());
+            log.debug("Sent {} emails", delivered.size());
+        }
+        if (!failed.isEmpty() || !undeliverable.isEmpty()) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MailOutboxMessage.class);
+            Instant now = Instant.now();
+            failed.forEach((outboxMessage, error) -> {
+                if (outboxMessage.getAttempts() + 1 < properties.getMaxAttempts()) {
+                    retry(operations, outboxMessage, error, now);
+                } else {
+                    giveUp(operations, outboxMessage, error);
+                }
+            });
+            undeliverable.forEach((outboxMessage, error) -> giveUp(operations, outboxMessage, error));
+            operations.execute();
+        }
+        return delivered.size();
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage outboxMessage) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, outboxMessage.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(outboxMessage.getTo());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(outboxMessage.getSubject());
+        message.setText(outboxMessage.getContent(), outboxMessage.isHtml());
+        return mimeMessage;
+    }
+
+    private void retry(BulkOperations operations, MailOutboxMessage outboxMessage, Exception error, Instant now) {
+        int attempts = outboxMessage.getAttempts() + 1;
+        Instant nextAttemptAt = now.plus(backoff(attempts));
+        retried.increment();
+        log.warn("Email could not be sent to '{}', retrying at {}: {}", outboxMessage.getTo(), nextAttemptAt, error.toString());
+        update(
+            operations,
+            outboxMessage,
+            new Update()
+                .set("attempts", attempts)
+                .set("lastError", abbreviate(error.toString()))
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lockedUntil", now)
+        );
+    }
+
+    private void giveUp(BulkOperations operations, MailOutboxMessage outboxMessage, Exception error) {
+        int attempts = outboxMessage.getAttempts() + 1;
+        dropped.increment();
+        log.warn("Email could not be sent to '{}' after {} attempts, giving up", outboxMessage.getTo(), attempts, error);
+        update(
+            operations,
+            outboxMessage,
+            new Update().set("attempts", attempts).set("lastError", abbreviate(error.toString())).set("status", MailOutboxMessage.FAILED)
+        );
+    }
+
+    private void update(BulkOperations operations, MailOutboxMessage outboxMessage, Update update) {
+        // a sender that outlived its lease leaves the email to the sender that claimed it since
+        operations.updateOne(
+            Query.query(Criteria.where("id").is(outboxMessage.getId()).and("claimedBy").is(outboxMessage.getClaimedBy())),
+            update
+        );
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private double countPending() {
+        return mongoTemplate.count(Query.query(Criteria.where("status").is(MailOutboxMessage.PENDING)), MailOutboxMessage.class);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (senderExecutor != null) {
+            senderExecutor.shutdown();
+        }
+    }
+}
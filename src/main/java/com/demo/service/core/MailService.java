@@ -1,17 +1,21 @@
 package com.demo.service.core;
 
+import com.demo.config.Constants;
+import com.demo.domain.MailOutboxMessage;
 import com.demo.domain.User;
-import java.nio.charset.StandardCharsets;
+import com.demo.repository.MailOutboxMessageRepository;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
@@ -20,7 +24,13 @@ import tech.jhipster.config.JHipsterProperties;
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are rendered on the calling thread and stored in the {@code mail_outbox} collection, so they survive a restart
+ * and a burst of them does not hold a thread each. {@link MailOutboxSender} sends them in batches.
+ * <p>
+ * Thymeleaf keeps the parsed templates in its template cache ({@code spring.thymeleaf.cache}), and a parsed template
+ * serves every locale. Subjects are looked up once per key and locale. Bulk notifications should go through
+ * {@link #sendEmailsFromTemplate(Collection, String, String)}, which renders all the emails of a locale with one
+ * context and queues them with bulk inserts.
  */
 @Service
 public class MailService {
@@ -31,30 +41,37 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
-    private final JHipsterProperties jHipsterProperties;
+    private static final int INSERT_BATCH_SIZE = 500;
 
-    private final JavaMailSender javaMailSender;
+    private final JHipsterProperties jHipsterProperties;
 
     private final MessageSource messageSource;
 
     private final SpringTemplateEngine templateEngine;
 
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    private final MailOutboxSender mailOutboxSender;
+
+    private final ConcurrentMap<String, String> subjects = new ConcurrentHashMap<>();
+
     public MailService(
         JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        MailOutboxMessageRepository mailOutboxMessageRepository,
+        MailOutboxSender mailOutboxSender
     ) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+        this.mailOutboxSender = mailOutboxSender;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
@@ -62,49 +79,105 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+        mailOutboxMessageRepository.insert(outboxMessage(to, subject, content, isMultipart, isHtml));
+        mailOutboxSender.wakeUp();
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
+        Context context = templateContext(locale);
         context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
         String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        sendEmail(user.getEmail(), subject(titleKey, locale), content, false, true);
+    }
+
+    /**
+     * Renders a template for each user and queues the emails.
+     * <p>
+     * Users are grouped by language. The emails of a language share their subject and template context, only the user
+     * variable changes from one email to the next, and they are inserted in the outbox in bulk.
+     *
+     * @param users the recipients; users without an email are skipped, users without a language get the default one.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     */
+    public void sendEmailsFromTemplate(Collection<User> users, String templateName, String titleKey) {
+        Map<String, List<User>> usersByLangKey = users
+            .stream()
+            .filter(user -> user.getEmail() != null)
+            .collect(Collectors.groupingBy(user -> user.getLangKey() != null ? user.getLangKey() : Constants.DEFAULT_LANGUAGE));
+        List<MailOutboxMessage> messages = new ArrayList<>(INSERT_BATCH_SIZE);
+        StringWriter content = new StringWriter();
+        int queued = 0;
+        for (Map.Entry<String, List<User>> localeUsers : usersByLangKey.entrySet()) {
+            Locale locale = Locale.forLanguageTag(localeUsers.getKey());
+            Context context = templateContext(locale);
+            String subject = subject(titleKey, locale);
+            for (User user : localeUsers.getValue()) {
+                context.setVariable(USER, user);
+                content.getBuffer().setLength(0);
+                templateEngine.process(templateName, context, content);
+                messages.add(outboxMessage(user.getEmail(), subject, content.toString(), false, true));
+                if (messages.size() == INSERT_BATCH_SIZE) {
+                    queued += insert(messages);
+                }
+            }
+        }
+        queued += insert(messages);
+        log.debug("Queued {} emails from template '{}' for {} users", queued, templateName, users.size());
+        mailOutboxSender.wakeUp();
+    }
+
+    private int insert(List<MailOutboxMessage> messages) {
+        int count = messages.size();
+        if (count > 0) {
+            mailOutboxMessageRepository.insert(messages);
+            messages.clear();
+        }
+        return count;
+    }
+
+    private Context templateContext(Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return context;
+    }
+
+    private String subject(String titleKey, Locale locale) {
+        return subjects.computeIfAbsent(titleKey + "/" + locale.toLanguageTag(), key -> messageSource.getMessage(titleKey, null, locale));
+    }
+
+    private static MailOutboxMessage outboxMessage(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setContent(content);
+        message.setMultipart(isMultipart);
+        message.setHtml(isHtml);
+        message.setNextAttemptAt(message.getCreatedDate());
+        message.setLockedUntil(message.getCreatedDate());
+        return message;
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
+    public void sendActivationEmails(Collection<User> users) {
+        log.debug("Sending activation emails to {} users", users.size());
+        sendEmailsFromTemplate(users, "mail/activationEmail", "email.activation.title");
+    }
+
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
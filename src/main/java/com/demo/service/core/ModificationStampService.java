@@ -0,0 +1,60 @@
+package com.demo.service.core;
+
+import com.demo.domain.AbstractAuditingEntity;
+import java.util.Optional;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cheap lookups of entity versions and modification dates, used to answer conditional requests without loading full documents.
+ */
+@Service
+public class ModificationStampService {
+
+    private final Logger log = LoggerFactory.getLogger(ModificationStampService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public ModificationStampService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Get the version of a single entity, reading only that field.
+     *
+     * @param entityClass the entity type.
+     * @param id the id of the entity.
+     * @return the version, or empty if the entity does not exist.
+     */
+    public Optional<Long> getVersion(Class<? extends AbstractAuditingEntity<String>> entityClass, String id) {
+        log.debug("Request to get version of {} : {}", entityClass.getSimpleName(), id);
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        return Optional
+            .ofNullable(mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(entityClass)))
+            .map(document -> document.get("version") instanceof Number ? ((Number) document.get("version")).longValue() : 0L);
+    }
+
+    /**
+     * Get a stamp that changes whenever a document of the collection is created, updated or deleted.
+     * <p>
+     * It combines the collection's estimated document count (read from metadata) with the most recent
+     * {@code last_modified_date}, read from its index.
+     *
+     * @param entityClass the entity type.
+     * @return the collection stamp.
+     */
+    public String getCollectionStamp(Class<? extends AbstractAuditingEntity<String>> entityClass) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "lastModifiedDate")).limit(1);
+        query.fields().include("lastModifiedDate");
+        AbstractAuditingEntity<String> latest = mongoTemplate.findOne(query, entityClass);
+        long lastModified = latest != null && latest.getLastModifiedDate() != null ? latest.getLastModifiedDate().toEpochMilli() : 0L;
+        return mongoTemplate.estimatedCount(entityClass) + "-" + lastModified;
+    }
+}
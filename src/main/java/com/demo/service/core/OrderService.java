@@ -1,111 +1,137 @@
 package com.demo.service.core;
 
+import com.demo.domain.Customer;
 import com.demo.domain.Order;
 import com.demo.repository.CustomerRepository;
 import com.demo.repository.OrderRepository;
+import com.demo.service.EntityNotFoundException;
 import com.demo.service.dto.OrderDTO;
 import com.demo.service.mapper.OrderMapper;
+import com.mongodb.client.result.UpdateResult;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.StreamUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 @Service
 public class OrderService {
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(OrderService.class);
     private final OrderRepository repository;
     private final CustomerRepository customerRepository;
     private final OrderMapper mapper;
     private final MongoTemplate mongoTemplate;
+    private final PartialUpdateService partialUpdateService;
 
     public OrderService(
         OrderRepository repository,
         CustomerRepository customerRepository,
         OrderMapper mapper,
-        MongoTemplate mongoTemplate
+        MongoTemplate mongoTemplate,
+        PartialUpdateService partialUpdateService
     ) {
         this.repository = repository;
         this.customerRepository = customerRepository;
         this.mapper = mapper;
         this.mongoTemplate = mongoTemplate;
+        this.partialUpdateService = partialUpdateService;
     }
 
-    private void populateCustomerName(OrderDTO dto) {
-        if (dto.getCustomerId() != null) {
-            customerRepository
-                .findById(dto.getCustomerId())
-                .ifPresent(customer -> dto.setCustomerName(customer.getFirstName() + " " + customer.getLastName()));
-        }
+    /**
+     * Copies the customer's name and email onto the order, so that order reads never have to join the customer collection.
+     */
+    private void applyCustomerSnapshot(Order order) {
+        Optional<Customer> customer = order.getCustomerId() != null ? customerRepository.findById(order.getCustomerId()) : Optional.empty();
+        order.setCustomerName(customer.map(Customer::getFullName).orElse(null));
+        order.setCustomerEmail(customer.map(Customer::getEmail).orElse(null));
+    }
+
+    /**
+     * Rewrites the customer snapshot of every order placed by the given customer, in a single multi-document update.
+     * Orders whose snapshot is already current are left untouched.
+     *
+     * @param customer the updated customer.
+     */
+    public void refreshCustomerSnapshot(Customer customer) {
+        Criteria stale = new Criteria()
+            .orOperator(Criteria.where("customerName").ne(customer.getFullName()), Criteria.where("customerEmail").ne(customer.getEmail()));
+        UpdateResult result = mongoTemplate.updateMulti(
+            Query.query(Criteria.where("customerId").is(customer.getId()).andOperator(stale)),
+            Update
+                .update("customerName", customer.getFullName())
+                .set("customerEmail", customer.getEmail())
+                .set("lastModifiedDate", Instant.now())
+                .inc("version", 1),
+            Order.class
+        );
+        log.debug("Refreshed customer snapshot of {} Orders for customer {}", result.getModifiedCount(), customer.getId());
     }
 
     public OrderDTO save(OrderDTO dto) {
         log.debug("Request to save Order : {}", dto);
         Order entity = mapper.toEntity(dto);
+        applyCustomerSnapshot(entity);
         entity = repository.save(entity);
-        OrderDTO result = mapper.toDto(entity);
-        populateCustomerName(result);
-        return result;
+        return mapper.toDto(entity);
     }
 
     public OrderDTO update(OrderDTO dto) {
         log.debug("Request to update Order : {}", dto);
         Order entity = repository
             .findById(dto.getId())
-            .orElseThrow(() -> new IllegalStateException("Order not found with id " + dto.getId()));
+            .orElseThrow(() -> new EntityNotFoundException("order", dto.getId()));
+        String previousCustomerId = entity.getCustomerId();
         mapper.updateEntity(entity, dto);
+        if (!Objects.equals(previousCustomerId, entity.getCustomerId())) {
+            applyCustomerSnapshot(entity);
+        }
         entity = repository.save(entity);
-        OrderDTO result = mapper.toDto(entity);
-        populateCustomerName(result);
-        return result;
+        return mapper.toDto(entity);
     }
 
     public Optional<OrderDTO> partialUpdate(OrderDTO dto) {
         log.debug("Request to partially update Order : {}", dto);
-        return repository
-            .findById(dto.getId())
-            .map(existing -> {
-                mapper.partialUpdate(existing, dto);
-                return existing;
-            })
-            .map(repository::save)
-            .map(order -> {
-                OrderDTO result = mapper.toDto(order);
-                populateCustomerName(result);
-                return result;
-            });
+        Update update = mapper.toPartialUpdate(dto);
+        if (dto.getCustomerId() != null) {
+            Optional<Customer> customer = customerRepository.findById(dto.getCustomerId());
+            update.set("customerName", customer.map(Customer::getFullName).orElse(null));
+            update.set("customerEmail", customer.map(Customer::getEmail).orElse(null));
+        }
+        return partialUpdateService.update(Order.class, dto.getId(), dto, update).map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Orders");
-        return repository.findAll(pageable).map(order -> {
-            OrderDTO dto = mapper.toDto(order);
-            populateCustomerName(dto);
-            return dto;
-        });
+        return repository.findAll(pageable).map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDTO> findByCustomerId(String customerId, Pageable pageable) {
         log.debug("Request to get Orders for customer : {}", customerId);
-        return repository.findAllByCustomerId(customerId, pageable).map(order -> {
-            OrderDTO dto = mapper.toDto(order);
-            populateCustomerName(dto);
-            return dto;
-        });
+        return repository.findAllByCustomerId(customerId, pageable).map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
@@ -120,6 +146,50 @@ public class OrderService {
         Pageable pageable
     ) {
         log.debug("Request to search Orders");
+        Query query = buildSearchQuery(customerId, status, paymentMethod, startDate, endDate, minTotal, maxTotal);
+
+        long total = mongoTemplate.count(query, Order.class);
+        query.with(pageable);
+        List<Order> orders = mongoTemplate.find(query, Order.class);
+
+        Page<Order> page = PageableExecutionUtils.getPage(orders, pageable, () -> total);
+
+        return page.map(mapper::toDto);
+    }
+
+    /**
+     * Stream orders matching the search filters straight from a database cursor, without pagination.
+     * <p>
+     * The returned stream holds an open cursor and must be closed by the caller.
+     *
+     * @return the stream of matching orders, in id order.
+     */
+    @Transactional(readOnly = true)
+    public Stream<OrderDTO> streamOrders(
+        String customerId,
+        String status,
+        String paymentMethod,
+        Instant startDate,
+        Instant endDate,
+        BigDecimal minTotal,
+        BigDecimal maxTotal
+    ) {
+        log.debug("Request to stream Orders");
+        Query query = buildSearchQuery(customerId, status, paymentMethod, startDate, endDate, minTotal, maxTotal)
+            .with(Sort.by("id"))
+            .cursorBatchSize(STREAM_BATCH_SIZE);
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(query, Order.class)).map(mapper::toDto);
+    }
+
+    private Query buildSearchQuery(
+        String customerId,
+        String status,
+        String paymentMethod,
+        Instant startDate,
+        Instant endDate,
+        BigDecimal minTotal,
+        BigDecimal maxTotal
+    ) {
         Query query = new Query();
 
         if (StringUtils.hasText(customerId)) {
@@ -158,26 +228,12 @@ public class OrderService {
             query.addCriteria(totalCriteria);
         }
 
-        long total = mongoTemplate.count(query, Order.class);
-        query.with(pageable);
-        List<Order> orders = mongoTemplate.find(query, Order.class);
-
-        Page<Order> page = PageableExecutionUtils.getPage(orders, pageable, () -> total);
-
-        return page.map(order -> {
-            OrderDTO dto = mapper.toDto(order);
-            populateCustomerName(dto);
-            return dto;
-        });
+        return query;
     }
 
     public Optional<OrderDTO> findOne(String id) {
         log.debug("Request to get Order : {}", id);
-        return repository.findById(id).map(order -> {
-            OrderDTO dto = mapper.toDto(order);
-            populateCustomerName(dto);
-            return dto;
-        });
+        return repository.findById(id).map(mapper::toDto);
     }
 
     public void delete(String id) {
@@ -190,28 +246,36 @@ public class OrderService {
         repository.deleteAllById(ids);
     }
 
+    /**
+     * Get statistics about orders: counts and revenue are grouped by status server-side.
+     *
+     * @return a map containing statistics.
+     */
     @Transactional(readOnly = true)
     public Map<String, Object> getStatistics() {
         log.debug("Request to get Order statistics");
-        List<Order> orders = repository.findAll();
-        long totalOrders = orders.size();
-        long completedOrders = orders.stream().filter(order -> "COMPLETED".equalsIgnoreCase(order.getStatus())).count();
-        long pendingOrders = orders.stream().filter(order -> "PENDING".equalsIgnoreCase(order.getStatus())).count();
-        long cancelledOrders = orders.stream().filter(order -> "CANCELLED".equalsIgnoreCase(order.getStatus())).count();
-        double totalRevenue = orders
-            .stream()
-            .map(Order::getTotalAmount)
-            .filter(amount -> amount != null)
-            .mapToDouble(BigDecimal::doubleValue)
-            .sum();
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.project("totalAmount").and(StringOperators.valueOf("status").toUpper()).as("status"),
+            Aggregation.group("status").count().as("count").sum("totalAmount").as("revenue")
+        );
+        Map<String, Long> countsByStatus = new HashMap<>();
+        long totalOrders = 0;
+        double totalRevenue = 0;
+        for (Document byStatus : mongoTemplate.aggregate(aggregation, Order.class, Document.class)) {
+            long count = ((Number) byStatus.get("count")).longValue();
+            countsByStatus.put(byStatus.getString("_id"), count);
+            totalOrders += count;
+            if (byStatus.get("revenue") instanceof Number) {
+                totalRevenue += ((Number) byStatus.get("revenue")).doubleValue();
+            }
+        }
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalOrders", totalOrders);
-        stats.put("completedOrders", completedOrders);
-        stats.put("pendingOrders", pendingOrders);
-        stats.put("cancelledOrders", cancelledOrders);
+        stats.put("completedOrders", countsByStatus.getOrDefault("COMPLETED", 0L));
+        stats.put("pendingOrders", countsByStatus.getOrDefault("PENDING", 0L));
+        stats.put("cancelledOrders", countsByStatus.getOrDefault("CANCELLED", 0L));
         stats.put("totalRevenue", totalRevenue);
         return stats;
     }
 }
-
@@ -0,0 +1,87 @@
+package com.demo.service.core;
+
+import com.demo.config.Constants;
+import com.demo.security.SecurityUtils;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies partial updates as a single atomic {@code findAndModify}, instead of reading, mutating and saving the whole document.
+ * <p>
+ * Since the update bypasses the entity lifecycle, this service takes over the work normally done on save: it validates
+ * the fields being set, fills in the audit fields and increments the entity version.
+ */
+@Service
+public class PartialUpdateService {
+
+    private final Logger log = LoggerFactory.getLogger(PartialUpdateService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Validator validator;
+
+    public PartialUpdateService(MongoTemplate mongoTemplate, Validator validator) {
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+    }
+
+    /**
+     * Sets the given fields of a single entity and returns the updated entity, in one round trip.
+     *
+     * @param entityClass the entity type.
+     * @param id the id of the entity.
+     * @param dto the partial DTO the update was compiled from; its non-null fields are validated.
+     * @param update the {@code $set} update of the fields present in the DTO.
+     * @param <T> the entity type.
+     * @return the updated entity, or empty if it does not exist.
+     */
+    public <T> Optional<T> update(Class<T> entityClass, String id, Object dto, Update update) {
+        log.debug("Request to atomically update {} : {}", entityClass.getSimpleName(), id);
+        validatePresentFields(dto);
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                withAuditFields(update),
+                FindAndModifyOptions.options().returnNew(true),
+                entityClass
+            )
+        );
+    }
+
+    /**
+     * Adds the audit fields and the version increment that a save would have written to an update.
+     *
+     * @param update the update of a single versioned entity.
+     * @return the same update, for chaining.
+     */
+    public Update withAuditFields(Update update) {
+        return update
+            .set("lastModifiedBy", SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM))
+            .set("lastModifiedDate", Instant.now())
+            .inc("version", 1);
+    }
+
+    private void validatePresentFields(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator
+            .validate(dto)
+            .stream()
+            .filter(violation -> violation.getInvalidValue() != null)
+            .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+}
@@ -1,24 +1,41 @@
 package com.demo.service.core;
 
+import com.demo.domain.Category;
 import com.demo.domain.Product;
 import com.demo.repository.CategoryRepository;
 import com.demo.repository.ProductRepository;
+import com.demo.service.EntityNotFoundException;
+import com.demo.service.InsufficientStockException;
 import com.demo.service.dto.ProductDTO;
+import com.demo.service.dto.StockReservationDTO;
+import com.demo.service.lock.SchedulerLock;
 import com.demo.service.mapper.ProductMapper;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.StreamUtils;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -29,29 +46,41 @@ import org.springframework.util.StringUtils;
 @Service
 public class ProductService {
 
+    private static final int LOW_STOCK_THRESHOLD = 10;
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(ProductService.class);
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
     private final MongoTemplate mongoTemplate;
+    private final PartialUpdateService partialUpdateService;
 
     public ProductService(
         ProductRepository productRepository,
         CategoryRepository categoryRepository,
         ProductMapper productMapper,
-        MongoTemplate mongoTemplate
+        MongoTemplate mongoTemplate,
+        PartialUpdateService partialUpdateService
     ) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.productMapper = productMapper;
         this.mongoTemplate = mongoTemplate;
+        this.partialUpdateService = partialUpdateService;
     }
 
-    private void populateCategoryName(ProductDTO dto) {
-        if (dto.getCategoryId() != null) {
-            categoryRepository.findById(dto.getCategoryId()).ifPresent(category -> dto.setCategoryName(category.getName()));
+    /**
+     * Copies the current category name onto the product, so that reads never have to join the category collection.
+     */
+    private void applyCategoryName(Product product) {
+        if (product.getCategoryId() == null) {
+            product.setCategoryName(null);
+            return;
         }
+        product.setCategoryName(categoryRepository.findById(product.getCategoryId()).map(Category::getName).orElse(null));
     }
 
     /**
@@ -60,54 +89,126 @@ public class ProductService {
      * @param productDTO the entity to save.
      * @return the persisted entity.
      */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
     public ProductDTO save(ProductDTO productDTO) {
         log.debug("Request to save Product : {}", productDTO);
         Product product = productMapper.toEntity(productDTO);
+        applyCategoryName(product);
         product = productRepository.save(product);
-        ProductDTO result = productMapper.toDto(product);
-        populateCategoryName(result);
-        return result;
+        return productMapper.toDto(product);
     }
 
     /**
      * Updates a product.
+     * <p>
+     * If the DTO carries a version, the update only succeeds when it still matches the stored version.
      *
      * @param productDTO the entity to update.
      * @return the persisted entity.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the product was modified since that version.
      */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
     public ProductDTO update(ProductDTO productDTO) {
         log.debug("Request to update Product : {}", productDTO);
         Product product = productRepository
             .findById(productDTO.getId())
-            .orElseThrow(() -> new IllegalStateException("Product not found with id " + productDTO.getId()));
+            .orElseThrow(() -> new EntityNotFoundException("product", productDTO.getId()));
         productMapper.updateEntity(product, productDTO);
+        applyCategoryName(product);
         product = productRepository.save(product);
-        ProductDTO result = productMapper.toDto(product);
-        populateCategoryName(result);
-        return result;
+        return productMapper.toDto(product);
     }
 
     /**
-     * Partially updates a product.
+     * Partially updates a product, setting only the non-null fields of the DTO in a single atomic update.
      *
      * @param productDTO the entity to update partially.
      * @return the persisted entity.
      */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
     public Optional<ProductDTO> partialUpdate(ProductDTO productDTO) {
         log.debug("Request to partially update Product : {}", productDTO);
+        Update update = productMapper.toPartialUpdate(productDTO);
+        if (productDTO.getCategoryId() != null) {
+            update.set("categoryName", categoryRepository.findById(productDTO.getCategoryId()).map(Category::getName).orElse(null));
+        }
+        return partialUpdateService.update(Product.class, productDTO.getId(), productDTO, update).map(productMapper::toDto);
+    }
 
-        return productRepository
-            .findById(productDTO.getId())
-            .map(existingProduct -> {
-                productMapper.partialUpdate(existingProduct, productDTO);
-                return existingProduct;
-            })
-            .map(productRepository::save)
-            .map(product -> {
-                ProductDTO dto = productMapper.toDto(product);
-                populateCategoryName(dto);
-                return dto;
-            });
+    /**
+     * Reserves stock of a product, decrementing it only if enough is left, in a single atomic update.
+     *
+     * @param id the id of the product.
+     * @param quantity the quantity to reserve.
+     * @return the updated product, or empty if it does not exist.
+     * @throws InsufficientStockException if less than {@code quantity} is in stock.
+     */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
+    public Optional<ProductDTO> reserveStock(String id, int quantity) {
+        log.debug("Request to reserve {} of Product : {}", quantity, id);
+        Product product = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("id").is(id).and("stockQuantity").gte(quantity)),
+            partialUpdateService.withAuditFields(new Update().inc("stockQuantity", -quantity)),
+            FindAndModifyOptions.options().returnNew(true),
+            Product.class
+        );
+        if (product == null && productRepository.existsById(id)) {
+            throw new InsufficientStockException(id);
+        }
+        return Optional.ofNullable(product).map(productMapper::toDto);
+    }
+
+    /**
+     * Reserves stock of several products as a unit: either every line is reserved, or none is.
+     * <p>
+     * Lines for the same product are merged, then reserved one by one. When a line fails, the lines already reserved
+     * are released again before the failure is reported.
+     *
+     * @param reservations the products and quantities to reserve.
+     * @return the updated products.
+     * @throws InsufficientStockException if a product does not exist or has not enough stock; nothing stays reserved.
+     */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
+    public List<ProductDTO> reserveStock(List<StockReservationDTO> reservations) {
+        log.debug("Request to reserve stock of {} Products", reservations.size());
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        reservations.forEach(reservation -> quantities.merge(reservation.getProductId(), (long) reservation.getQuantity(), Long::sum));
+        List<ProductDTO> reserved = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Long> line : quantities.entrySet()) {
+                // merged lines can exceed any int stock, and must not wrap around into a negative reservation
+                if (line.getValue() > Integer.MAX_VALUE) {
+                    throw new InsufficientStockException(line.getKey());
+                }
+                reserved.add(
+                    reserveStock(line.getKey(), line.getValue().intValue()).orElseThrow(() -> new InsufficientStockException(line.getKey()))
+                );
+            }
+        } catch (RuntimeException e) {
+            log.debug("Rolling back stock reservation of {} Products", reserved.size());
+            reserved.forEach(product -> releaseStock(product.getId(), quantities.get(product.getId()).intValue()));
+            throw e;
+        }
+        return reserved;
+    }
+
+    /**
+     * Releases previously reserved stock of a product, in a single atomic update.
+     *
+     * @param id the id of the product.
+     * @param quantity the quantity to release.
+     * @return the updated product, or empty if it does not exist.
+     */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
+    public Optional<ProductDTO> releaseStock(String id, int quantity) {
+        log.debug("Request to release {} of Product : {}", quantity, id);
+        Product product = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("id").is(id)),
+            partialUpdateService.withAuditFields(new Update().inc("stockQuantity", quantity)),
+            FindAndModifyOptions.options().returnNew(true),
+            Product.class
+        );
+        return Optional.ofNullable(product).map(productMapper::toDto);
     }
 
     /**
@@ -118,11 +219,7 @@ public class ProductService {
      */
     public Page<ProductDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Products");
-        return productRepository.findAll(pageable).map(dto -> {
-            ProductDTO productDTO = productMapper.toDto(dto);
-            populateCategoryName(productDTO);
-            return productDTO;
-        });
+        return productRepository.findAll(pageable).map(productMapper::toDto);
     }
 
     /**
@@ -133,11 +230,7 @@ public class ProductService {
      */
     public Page<ProductDTO> findAllActive(Pageable pageable) {
         log.debug("Request to get all active Products");
-        return productRepository.findAllByActiveTrue(pageable).map(dto -> {
-            ProductDTO productDTO = productMapper.toDto(dto);
-            populateCategoryName(productDTO);
-            return productDTO;
-        });
+        return productRepository.findAllByActiveTrue(pageable).map(productMapper::toDto);
     }
 
     /**
@@ -148,11 +241,7 @@ public class ProductService {
      */
     public Optional<ProductDTO> findOne(String id) {
         log.debug("Request to get Product : {}", id);
-        return productRepository.findById(id).map(product -> {
-            ProductDTO dto = productMapper.toDto(product);
-            populateCategoryName(dto);
-            return dto;
-        });
+        return productRepository.findById(id).map(productMapper::toDto);
     }
 
     /**
@@ -160,6 +249,7 @@ public class ProductService {
      *
      * @param id the id of the entity.
      */
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
     public void delete(String id) {
         log.debug("Request to delete Product : {}", id);
         productRepository.deleteById(id);
@@ -192,6 +282,39 @@ public class ProductService {
             minPrice,
             maxPrice
         );
+        Query query = buildSearchQuery(name, categoryId, active, minPrice, maxPrice);
+
+        long total = mongoTemplate.count(query, Product.class);
+        query.with(pageable);
+        List<Product> products = mongoTemplate.find(query, Product.class);
+
+        Page<Product> page = PageableExecutionUtils.getPage(products, pageable, () -> total);
+
+        return page.map(productMapper::toDto);
+    }
+
+    /**
+     * Stream products matching the search filters straight from a database cursor, without pagination.
+     * <p>
+     * The returned stream holds an open cursor and must be closed by the caller.
+     *
+     * @param name the name to search (partial match, case-insensitive).
+     * @param categoryId the category ID to filter by.
+     * @param active the active status to filter by.
+     * @param minPrice the minimum price.
+     * @param maxPrice the maximum price.
+     * @return the stream of matching entities, in id order.
+     */
+    @Transactional(readOnly = true)
+    public Stream<ProductDTO> streamProducts(String name, String categoryId, Boolean active, BigDecimal minPrice, BigDecimal maxPrice) {
+        log.debug("Request to stream Products with filters: name={}, categoryId={}, active={}", name, categoryId, active);
+        Query query = buildSearchQuery(name, categoryId, active, minPrice, maxPrice)
+            .with(Sort.by("id"))
+            .cursorBatchSize(STREAM_BATCH_SIZE);
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(query, Product.class)).map(productMapper::toDto);
+    }
+
+    private Query buildSearchQuery(String name, String categoryId, Boolean active, BigDecimal minPrice, BigDecimal maxPrice) {
         Query query = new Query();
 
         if (StringUtils.hasText(name)) {
@@ -218,36 +341,20 @@ public class ProductService {
             query.addCriteria(priceCriteria);
         }
 
-        long total = mongoTemplate.count(query, Product.class);
-        query.with(pageable);
-        List<Product> products = mongoTemplate.find(query, Product.class);
-
-        Page<Product> page = PageableExecutionUtils.getPage(products, pageable, () -> total);
-
-        return page.map(product -> {
-            ProductDTO dto = productMapper.toDto(product);
-            populateCategoryName(dto);
-            return dto;
-        });
+        return query;
     }
 
     /**
-     * Get all products for export (no pagination).
+     * Stream all products for export (no pagination), straight from a database cursor.
+     * <p>
+     * The returned stream holds an open cursor and must be closed by the caller.
      *
-     * @return the list of all entities.
+     * @return the stream of all entities.
      */
     @Transactional(readOnly = true)
-    public List<ProductDTO> getAllForExport() {
-        log.debug("Request to get all Products for export");
-        return productRepository
-            .findAll()
-            .stream()
-            .map(product -> {
-                ProductDTO dto = productMapper.toDto(product);
-                populateCategoryName(dto);
-                return dto;
-            })
-            .collect(Collectors.toList());
+    public Stream<ProductDTO> streamAllForExport() {
+        log.debug("Request to stream all Products for export");
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(new Query(), Product.class)).map(productMapper::toDto);
     }
 
     /**
@@ -256,52 +363,101 @@ public class ProductService {
      * @param ids the list of product IDs to delete.
      */
     @Transactional
+    @CacheEvict(cacheNames = CategoryService.CATEGORY_STATISTICS_CACHE, allEntries = true)
     public void deleteMany(List<String> ids) {
         log.debug("Request to delete {} Products", ids.size());
         productRepository.deleteAllById(ids);
     }
 
     /**
-     * Get statistics about products.
+     * Get statistics about products, computed by a single server-side aggregation.
      *
      * @return a map containing statistics.
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getStatistics() {
         log.debug("Request to get Product statistics");
-        Map<String, Object> stats = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation
+                .group()
+                .count()
+                .as("totalProducts")
+                .sum(ConditionalOperators.when(Criteria.where("active").is(true)).then(1).otherwise(0))
+                .as("activeProducts")
+                .avg("price")
+                .as("averagePrice")
+                .sum("stockQuantity")
+                .as("totalStock")
+                // null and missing values sort below every number, so $gt null skips them but keeps negative stock
+                .sum(ConditionalOperators.when(Criteria.where("stockQuantity").gt(null).lt(LOW_STOCK_THRESHOLD)).then(1).otherwise(0))
+                .as("lowStockCount")
+        );
+        Document result = mongoTemplate.aggregate(aggregation, Product.class, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
 
-        List<Product> allProducts = productRepository.findAll();
-        long totalProducts = allProducts.size();
-        long activeProducts = allProducts.stream().filter(p -> Boolean.TRUE.equals(p.getActive())).count();
-        long inactiveProducts = totalProducts - activeProducts;
-        double avgPrice = allProducts
-            .stream()
-            .filter(p -> p.getPrice() != null)
-            .mapToDouble(p -> p.getPrice().doubleValue())
-            .average()
-            .orElse(0.0);
-
-        int totalStock = allProducts
-            .stream()
-            .filter(p -> p.getStockQuantity() != null)
-            .mapToInt(Product::getStockQuantity)
-            .sum();
-
-        int lowStockCount = (int) allProducts
-            .stream()
-            .filter(p -> p.getStockQuantity() != null && p.getStockQuantity() < 10)
-            .count();
+        long totalProducts = numberValue(result.get("totalProducts")).longValue();
+        long activeProducts = numberValue(result.get("activeProducts")).longValue();
 
+        Map<String, Object> stats = new HashMap<>();
         stats.put("totalProducts", totalProducts);
         stats.put("activeProducts", activeProducts);
-        stats.put("inactiveProducts", inactiveProducts);
-        stats.put("averagePrice", avgPrice);
-        stats.put("totalStock", totalStock);
-        stats.put("lowStockCount", lowStockCount);
+        stats.put("inactiveProducts", totalProducts - activeProducts);
+        stats.put("averagePrice", numberValue(result.get("averagePrice")).doubleValue());
+        stats.put("totalStock", numberValue(result.get("totalStock")).intValue());
+        stats.put("lowStockCount", numberValue(result.get("lowStockCount")).intValue());
 
         return stats;
     }
 
+    private Number numberValue(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    /**
+     * Reports products whose denormalized category name no longer matches their category, including products of a
+     * deleted category that still carry its name.
+     * <p>
+     * Products are counted per category id and name in a single aggregation, and each group is checked against the
+     * current category names.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am), and only runs on the instance that gets the cluster-wide
+     * lock.
+     *
+     * @return the number of drifted products, or 0 when another instance runs the report.
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    @SchedulerLock(name = "reportCategoryNameDrift", leaseTime = "30m", minHoldTime = "5m")
+    public long reportCategoryNameDrift() {
+        Query categoryQuery = new Query();
+        categoryQuery.fields().include("name");
+        Map<String, String> categoryNames = new HashMap<>();
+        for (Category category : mongoTemplate.find(categoryQuery, Category.class)) {
+            categoryNames.put(category.getId(), category.getName());
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(new Criteria().orOperator(Criteria.where("categoryId").ne(null), Criteria.where("categoryName").ne(null))),
+            Aggregation.group("categoryId", "categoryName").count().as("count")
+        );
+        long drifted = 0;
+        for (Document group : mongoTemplate.aggregate(aggregation, Product.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            String categoryId = key.getString("categoryId");
+            String categoryName = key.getString("categoryName");
+            String currentName = categoryId != null ? categoryNames.get(categoryId) : null;
+            if (!Objects.equals(categoryName, currentName)) {
+                long count = numberValue(group.get("count")).longValue();
+                if (categoryId != null && !categoryNames.containsKey(categoryId)) {
+                    log.warn("{} products of deleted category {} still carry its name", count, categoryId);
+                } else {
+                    log.warn("{} products of category {} carry a stale category name", count, categoryId);
+                }
+                drifted += count;
+            }
+        }
+        log.info("Category name verification finished, {} drifted products found", drifted);
+        return drifted;
+    }
 }
 
@@ -0,0 +1,265 @@
+package com.demo.service.core;
+
+import com.demo.config.ApplicationProperties;
+import com.demo.service.InsufficientStockException;
+import com.demo.service.StockReservationUnavailableException;
+import com.demo.service.dto.ProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-combining front of {@link ProductService#reserveStock(String, int)} for hot products.
+ * <p>
+ * Reservations of the same product arriving within a short window are collected into one batch and applied as a single
+ * conditional {@code $inc} of their total. When the total does not fit in the remaining stock, the batch falls back to
+ * reserving its requests one by one in arrival order, so every caller still gets an exact answer.
+ * <p>
+ * A caller waits for its batch at most the window plus the configured timeout. A reservation applied after its caller
+ * gave up is released again, and the batches still pending at shutdown are failed rather than left waiting.
+ */
+@Service
+public class StockWriteCombiner {
+
+    public static final String BATCH_SIZE_METER_NAME = "stock.write-combining.batch-size";
+    public static final String WAIT_METER_NAME = "stock.write-combining.wait";
+    public static final String FALLBACK_METER_NAME = "stock.write-combining.fallbacks";
+
+    private final Logger log = LoggerFactory.getLogger(StockWriteCombiner.class);
+
+    private final ProductService productService;
+
+    private final ApplicationProperties.Stock.WriteCombining properties;
+
+    private final ConcurrentMap<String, Batch> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flushExecutor;
+
+    private final DistributionSummary batchSize;
+
+    private final Timer waitTime;
+
+    private final Counter fallbacks;
+
+    public StockWriteCombiner(ProductService productService, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.productService = productService;
+        this.properties = applicationProperties.getStock().getWriteCombining();
+        this.flushExecutor =
+            Executors.newScheduledThreadPool(properties.getFlushThreads(), new CustomizableThreadFactory("stock-write-combiner-"));
+        this.batchSize =
+            DistributionSummary
+                .builder(BATCH_SIZE_METER_NAME)
+                .description("Number of stock reservations applied by one combined update")
+                .baseUnit("reservations")
+                .register(registry);
+        this.waitTime =
+            Timer
+                .builder(WAIT_METER_NAME)
+                .description("Time a stock reservation waits for its combined update to complete")
+                .register(registry);
+        this.fallbacks =
+            Counter
+                .builder(FALLBACK_METER_NAME)
+                .description("Combined updates that did not fit in the remaining stock and were applied one by one")
+                .register(registry);
+    }
+
+    /**
+     * Reserves stock of a product, combining the update with concurrent reservations of the same product.
+     *
+     * @param id the id of the product.
+     * @param quantity the quantity to reserve.
+     * @return the product as updated by the combined reservation, or empty if it does not exist.
+     * @throws InsufficientStockException if less than {@code quantity} is in stock.
+     * @throws StockReservationUnavailableException if the combined update did not complete in time, in which case
+     * nothing stays reserved.
+     */
+    public Optional<ProductDTO> reserveStock(String id, int quantity) {
+        if (!properties.isEnabled()) {
+            return productService.reserveStock(id, quantity);
+        }
+        Request request = new Request(quantity);
+        enqueue(id, request);
+        try {
+            return request.result.get(properties.getWindow().plus(properties.getTimeout()).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("Reservation of {} for Product {} timed out waiting for its combined update", quantity, id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // if the batch still completes the request, complete() finds it failed already and releases its stock again
+        request.result.completeExceptionally(new StockReservationUnavailableException(id));
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
+    private void enqueue(String id, Request request) {
+        while (true) {
+            Batch batch;
+            try {
+                batch = pending.computeIfAbsent(id, this::openBatch);
+            } catch (RejectedExecutionException e) {
+                throw new StockReservationUnavailableException(id);
+            }
+            int size = batch.add(request);
+            if (size >= properties.getMaxBatchSize()) {
+                pending.remove(id, batch);
+                try {
+                    flushExecutor.execute(() -> flush(id, batch));
+                } catch (RejectedExecutionException e) {
+                    abort(id, batch);
+                }
+            }
+            if (size > 0) {
+                return;
+            }
+            pending.remove(id, batch);
+        }
+    }
+
+    private Batch openBatch(String id) {
+        Batch batch = new Batch();
+        flushExecutor.schedule(() -> flush(id, batch), properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        return batch;
+    }
+
+    /**
+     * Fails the requests of a batch that will never be flushed.
+     */
+    private void abort(String id, Batch batch) {
+        List<Request> requests = batch.close();
+        if (!requests.isEmpty()) {
+            log.warn("Failing {} pending reservations of Product {}, the combiner is shutting down", requests.size(), id);
+            requests.forEach(request -> fail(request, new StockReservationUnavailableException(id)));
+        }
+    }
+
+    private void flush(String id, Batch batch) {
+        pending.remove(id, batch);
+        List<Request> requests = batch.close();
+        if (requests.isEmpty()) {
+            return;
+        }
+        batchSize.record(requests.size());
+        long total = requests.stream().mapToLong(request -> request.quantity).sum();
+        if (total > Integer.MAX_VALUE) {
+            // no product holds that much stock, and the total would wrap around as an int update
+            fallbacks.increment();
+            requests.forEach(request -> reserveAlone(id, request));
+            return;
+        }
+        try {
+            Optional<ProductDTO> product = productService.reserveStock(id, (int) total);
+            requests.forEach(request -> complete(id, request, product));
+        } catch (InsufficientStockException e) {
+            log.debug("Combined reservation of {} for Product {} does not fit, reserving one by one", total, id);
+            fallbacks.increment();
+            requests.forEach(request -> reserveAlone(id, request));
+        } catch (RuntimeException e) {
+            log.warn("Combined reservation of {} for Product {} failed", total, id, e);
+            requests.forEach(request -> fail(request, e));
+        }
+    }
+
+    private void reserveAlone(String id, Request request) {
+        if (request.result.isDone()) {
+            // its caller gave up waiting
+            return;
+        }
+        try {
+            complete(id, request, productService.reserveStock(id, request.quantity));
+        } catch (RuntimeException e) {
+            fail(request, e);
+        }
+    }
+
+    private void complete(String id, Request request, Optional<ProductDTO> product) {
+        waitTime.record(System.nanoTime() - request.enqueuedAt, TimeUnit.NANOSECONDS);
+        if (!request.result.complete(product) && product.isPresent()) {
+            log.warn("Releasing {} of Product {}, reserved after its caller gave up", request.quantity, id);
+            productService.releaseStock(id, request.quantity);
+        }
+    }
+
+    private void fail(Request request, RuntimeException e) {
+        waitTime.record(System.nanoTime() - request.enqueuedAt, TimeUnit.NANOSECONDS);
+        request.result.completeExceptionally(e);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // reservations arriving from now on are rejected when they try to schedule their batch
+        flushExecutor.shutdown();
+        pending.forEach((id, batch) -> {
+            pending.remove(id, batch);
+            abort(id, batch);
+        });
+    }
+
+    private static final class Request {
+
+        private final int quantity;
+
+        private final long enqueuedAt = System.nanoTime();
+
+        private final CompletableFuture<Optional<ProductDTO>> result = new CompletableFuture<>();
+
+        private Request(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    private static final class Batch {
+
+        private final List<Request> requests = new ArrayList<>();
+
+        private boolean closed;
+
+        /**
+         * @return the batch size including the new request, or 0 if the batch is already being flushed.
+         */
+        synchronized int add(Request request) {
+            if (closed) {
+                return 0;
+            }
+            requests.add(request);
+            return requests.size();
+        }
+
+        synchronized List<Request> close() {
+            if (closed) {
+                return List.of();
+            }
+            closed = true;
+            return requests;
+        }
+    }
+}
@@ -6,21 +6,33 @@ import com.demo.domain.User;
 import com.demo.repository.AuthorityRepository;
 import com.demo.repository.UserRepository;
 import com.demo.security.AuthoritiesConstants;
+import com.demo.security.DomainUserDetailsService;
 import com.demo.security.SecurityUtils;
 import com.demo.service.EmailAlreadyUsedException;
 import com.demo.service.InvalidPasswordException;
 import com.demo.service.UsernameAlreadyUsedException;
 import com.demo.service.dto.AdminUserDTO;
 import com.demo.service.dto.UserDTO;
+import com.demo.service.lock.JobLockService;
+import com.demo.service.lock.SchedulerLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -32,6 +44,13 @@ import tech.jhipster.security.RandomUtil;
 @Service
 public class UserService {
 
+    public static final String CLEANUP_DURATION_METER_NAME = "users.not-activated.cleanup";
+    public static final String CLEANUP_REMOVED_METER_NAME = "users.not-activated.removed";
+
+    private static final String REMOVE_NOT_ACTIVATED_USERS_JOB = "removeNotActivatedUsers";
+
+    private static final int REMOVE_NOT_ACTIVATED_USERS_CHUNK_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -42,16 +61,41 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final DomainUserDetailsService userDetailsService;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final JobLockService jobLockService;
+
+    private final Timer cleanupTimer;
+
+    private final Counter cleanupRemovedCounter;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        DomainUserDetailsService userDetailsService,
+        MongoTemplate mongoTemplate,
+        JobLockService jobLockService,
+        MeterRegistry registry
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.userDetailsService = userDetailsService;
+        this.mongoTemplate = mongoTemplate;
+        this.jobLockService = jobLockService;
+        this.cleanupTimer =
+            Timer.builder(CLEANUP_DURATION_METER_NAME).description("Duration of the removal of not activated users").register(registry);
+        this.cleanupRemovedCounter =
+            Counter
+                .builder(CLEANUP_REMOVED_METER_NAME)
+                .description("Not activated users removed after their activation period")
+                .baseUnit("users")
+                .register(registry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -246,6 +290,8 @@ public class UserService {
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                // the email may change, so evict the entries cached under the current one
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -295,17 +341,62 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am), and only runs on the instance that gets the cluster-wide
+     * lock.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @SchedulerLock(name = REMOVE_NOT_ACTIVATED_USERS_JOB, leaseTime = "1h", minHoldTime = "5m")
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        long removed = cleanupTimer.record(() -> removeNotActivatedUsersCreatedBefore(Instant.now().minus(3, ChronoUnit.DAYS)));
+        log.info("Removed {} not activated users", removed);
+    }
+
+    /**
+     * Streams the ids, logins and emails of the stale users and deletes them in chunks, evicting each chunk from the
+     * user caches at once.
+     */
+    private long removeNotActivatedUsersCreatedBefore(Instant createdBefore) {
+        Criteria stale = Criteria.where("activated").is(false).and("activationKey").ne(null).and("createdDate").lt(createdBefore);
+        Query query = Query.query(stale);
+        query.fields().include("id", "login", "email");
+        query.cursorBatchSize(REMOVE_NOT_ACTIVATED_USERS_CHUNK_SIZE);
+
+        long removed = 0;
+        List<User> chunk = new ArrayList<>(REMOVE_NOT_ACTIVATED_USERS_CHUNK_SIZE);
+        try (CloseableIterator<User> users = mongoTemplate.stream(query, User.class)) {
+            while (users.hasNext()) {
+                chunk.add(users.next());
+                if (chunk.size() == REMOVE_NOT_ACTIVATED_USERS_CHUNK_SIZE) {
+                    if (lostLock(removed)) {
+                        return removed;
+                    }
+                    removed += removeChunk(stale, chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty() && !lostLock(removed)) {
+            removed += removeChunk(stale, chunk);
+        }
+        return removed;
+    }
+
+    private boolean lostLock(long removed) {
+        if (jobLockService.hasLostCurrentLock()) {
+            log.warn("Lost the lock after removing {} not activated users, the next run removes the rest", removed);
+            return true;
+        }
+        return false;
+    }
+
+    private long removeChunk(Criteria stale, List<User> users) {
+        List<String> ids = users.stream().map(User::getId).collect(Collectors.toList());
+        // the stale criteria are repeated so a user activated since the cursor read it is kept
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("id").in(ids).andOperator(stale)), User.class).getDeletedCount();
+        this.clearUserCaches(users);
+        cleanupRemovedCounter.increment(removed);
+        log.debug("Deleted {} not activated users", removed);
+        return removed;
     }
 
     /**
@@ -321,6 +412,23 @@ public class UserService {
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
+        userDetailsService.evict(user);
+    }
+
+    private void clearUserCaches(Collection<User> users) {
+        evictAll(UserRepository.USERS_BY_LOGIN_CACHE, users.stream().map(User::getLogin));
+        evictAll(UserRepository.USERS_BY_EMAIL_CACHE, users.stream().map(User::getEmail).filter(Objects::nonNull));
+        userDetailsService.evictAll(users);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictAll(String cacheName, Stream<String> keys) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache) {
+            ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).removeAll(keys.collect(Collectors.toSet()));
+        } else {
+            keys.forEach(cache::evict);
+        }
     }
 }
 
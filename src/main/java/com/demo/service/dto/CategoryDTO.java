@@ -9,7 +9,7 @@ import javax.validation.constraints.*;
 /**
  * A DTO for the {@link Category} entity.
  */
-public class CategoryDTO implements Serializable {
+public class CategoryDTO implements Serializable, VersionedDTO {
 
     private String id;
 
@@ -36,6 +36,8 @@ public class CategoryDTO implements Serializable {
 
     private Instant lastModifiedDate;
 
+    private Long version;
+
     public CategoryDTO() {}
 
     public CategoryDTO(Category category) {
@@ -49,6 +51,7 @@ public class CategoryDTO implements Serializable {
         this.createdDate = category.getCreatedDate();
         this.lastModifiedBy = category.getLastModifiedBy();
         this.lastModifiedDate = category.getLastModifiedDate();
+        this.version = category.getVersion();
     }
 
     public String getId() {
@@ -131,6 +134,14 @@ public class CategoryDTO implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -9,7 +9,7 @@ import javax.validation.constraints.*;
 /**
  * A DTO for the {@link Customer} entity.
  */
-public class CustomerDTO implements Serializable {
+public class CustomerDTO implements Serializable, VersionedDTO {
 
     private String id;
 
@@ -44,6 +44,7 @@ public class CustomerDTO implements Serializable {
     private Instant createdDate;
     private String lastModifiedBy;
     private Instant lastModifiedDate;
+    private Long version;
 
     public CustomerDTO() {}
 
@@ -61,6 +62,7 @@ public class CustomerDTO implements Serializable {
         this.createdDate = customer.getCreatedDate();
         this.lastModifiedBy = customer.getLastModifiedBy();
         this.lastModifiedDate = customer.getLastModifiedDate();
+        this.version = customer.getVersion();
     }
 
     // Getters and setters
@@ -90,6 +92,8 @@ public class CustomerDTO implements Serializable {
     public void setLastModifiedBy(String lastModifiedBy) { this.lastModifiedBy = lastModifiedBy; }
     public Instant getLastModifiedDate() { return lastModifiedDate; }
     public void setLastModifiedDate(Instant lastModifiedDate) { this.lastModifiedDate = lastModifiedDate; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 
     @Override
     public boolean equals(Object o) {
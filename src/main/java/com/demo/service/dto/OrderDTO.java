@@ -10,11 +10,12 @@ import javax.validation.constraints.*;
 /**
  * A DTO for the {@link Order} entity.
  */
-public class OrderDTO implements Serializable {
+public class OrderDTO implements Serializable, VersionedDTO {
 
     private String id;
     private String customerId;
     private String customerName; // For display purposes
+    private String customerEmail; // For display purposes
     
     @NotNull
     private Instant orderDate;
@@ -39,12 +40,15 @@ public class OrderDTO implements Serializable {
     private Instant createdDate;
     private String lastModifiedBy;
     private Instant lastModifiedDate;
+    private Long version;
 
     public OrderDTO() {}
 
     public OrderDTO(Order order) {
         this.id = order.getId();
         this.customerId = order.getCustomerId();
+        this.customerName = order.getCustomerName();
+        this.customerEmail = order.getCustomerEmail();
         this.orderDate = order.getOrderDate();
         this.totalAmount = order.getTotalAmount();
         this.status = order.getStatus();
@@ -55,6 +59,7 @@ public class OrderDTO implements Serializable {
         this.createdDate = order.getCreatedDate();
         this.lastModifiedBy = order.getLastModifiedBy();
         this.lastModifiedDate = order.getLastModifiedDate();
+        this.version = order.getVersion();
     }
 
     // Getters and setters
@@ -64,6 +69,8 @@ public class OrderDTO implements Serializable {
     public void setCustomerId(String customerId) { this.customerId = customerId; }
     public String getCustomerName() { return customerName; }
     public void setCustomerName(String customerName) { this.customerName = customerName; }
+    public String getCustomerEmail() { return customerEmail; }
+    public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
     public Instant getOrderDate() { return orderDate; }
     public void setOrderDate(Instant orderDate) { this.orderDate = orderDate; }
     public BigDecimal getTotalAmount() { return totalAmount; }
@@ -84,6 +91,8 @@ public class OrderDTO implements Serializable {
     public void setLastModifiedBy(String lastModifiedBy) { this.lastModifiedBy = lastModifiedBy; }
     public Instant getLastModifiedDate() { return lastModifiedDate; }
     public void setLastModifiedDate(Instant lastModifiedDate) { this.lastModifiedDate = lastModifiedDate; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 
     @Override
     public boolean equals(Object o) {
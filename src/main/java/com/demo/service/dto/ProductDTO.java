@@ -10,7 +10,7 @@ import javax.validation.constraints.*;
 /**
  * A DTO for the {@link Product} entity.
  */
-public class ProductDTO implements Serializable {
+public class ProductDTO implements Serializable, VersionedDTO {
 
     private String id;
 
@@ -47,6 +47,8 @@ public class ProductDTO implements Serializable {
 
     private Instant lastModifiedDate;
 
+    private Long version;
+
     public ProductDTO() {}
 
     public ProductDTO(Product product) {
@@ -56,12 +58,14 @@ public class ProductDTO implements Serializable {
         this.price = product.getPrice();
         this.stockQuantity = product.getStockQuantity();
         this.categoryId = product.getCategoryId();
+        this.categoryName = product.getCategoryName();
         this.imageUrl = product.getImageUrl();
         this.active = product.getActive();
         this.createdBy = product.getCreatedBy();
         this.createdDate = product.getCreatedDate();
         this.lastModifiedBy = product.getLastModifiedBy();
         this.lastModifiedDate = product.getLastModifiedDate();
+        this.version = product.getVersion();
     }
 
     public String getId() {
@@ -168,6 +172,14 @@ public class ProductDTO implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
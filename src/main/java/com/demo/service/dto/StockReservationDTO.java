@@ -0,0 +1,61 @@
+package com.demo.service.dto;
+
+import java.io.Serializable;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing one line of a stock reservation - a product and the quantity to reserve.
+ */
+public class StockReservationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Upper bound of a reserved quantity, which keeps the sum of combined reservations far from {@code int} overflow.
+     */
+    public static final int MAX_QUANTITY = 1_000_000;
+
+    @NotNull
+    private String productId;
+
+    @NotNull
+    @Min(value = 1)
+    @Max(value = MAX_QUANTITY)
+    private Integer quantity;
+
+    public StockReservationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public StockReservationDTO(String productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StockReservationDTO{" +
+            "productId='" + productId + "'" +
+            ", quantity=" + quantity +
+            "}";
+    }
+}
@@ -0,0 +1,12 @@
+package com.demo.service.dto;
+
+/**
+ * A DTO carrying the version of its entity, which updates use for optimistic locking.
+ */
+public interface VersionedDTO {
+    String getId();
+
+    Long getVersion();
+
+    void setVersion(Long version);
+}
@@ -0,0 +1,49 @@
+package com.demo.service.lock;
+
+import java.time.Instant;
+
+/**
+ * A lock acquired by {@link JobLockService}.
+ * <p>
+ * The token grows by one on every acquisition of the same lock, so a holder whose lease expired can tell that another
+ * instance took the lock over. Writes of the job are not tagged with it: a holder that checks the lock between units of
+ * work can still finish the unit it started after losing the lease.
+ */
+public final class JobLock {
+
+    private final String name;
+
+    private final long token;
+
+    private final Instant lockedAt;
+
+    private final Instant lockedUntil;
+
+    JobLock(String name, long token, Instant lockedAt, Instant lockedUntil) {
+        this.name = name;
+        this.token = token;
+        this.lockedAt = lockedAt;
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public Instant getLockedAt() {
+        return lockedAt;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "JobLock{name='" + name + "', token=" + token + ", lockedAt=" + lockedAt + ", lockedUntil=" + lockedUntil + "}";
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.service.lock;
+
+import com.mongodb.client.result.UpdateResult;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cluster-wide locks for jobs that every instance schedules but only one should run.
+ * <p>
+ * A lock is a document of the {@code job_lock} collection leased until {@code locked_until}. It is acquired by an
+ * upsert matching only an expired lease: when another instance holds the lease, the upsert tries to insert a second
+ * document with the same id and fails on the {@code _id} index. A lease that is never released, e.g. because its
+ * holder crashed, expires on its own. Each acquisition increments the {@code token} of the document, which fences off
+ * a holder that outlived its lease: it can no longer release, nor claim to hold, a lock that was taken over.
+ * <p>
+ * Methods annotated with {@link SchedulerLock} run under a lock taken by {@link SchedulerLockAspect}, which they can
+ * check with {@link #hasLostCurrentLock()} between units of work. The check only narrows the overlap with a new holder
+ * to one unit of work, so those units must stay idempotent, e.g. deletes that repeat their selection criteria.
+ */
+@Service
+public class JobLockService {
+
+    public static final String COLLECTION = "job_lock";
+
+    private final Logger log = LoggerFactory.getLogger(JobLockService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private final ThreadLocal<JobLock> currentLock = new ThreadLocal<>();
+
+    public JobLockService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Acquires a lock unless another instance holds an unexpired lease on it.
+     *
+     * @param name the name of the job.
+     * @param leaseTime how long the lock is held if it is not released, which must exceed the longest run of the job.
+     * @return the acquired lock, or empty if another instance holds it.
+     */
+    public Optional<JobLock> tryLock(String name, Duration leaseTime) {
+        Instant now = Instant.now();
+        Instant lockedUntil = now.plus(leaseTime);
+        Query query = Query.query(Criteria.where("_id").is(name).and("locked_until").lte(now));
+        Update update = new Update().set("locked_until", lockedUntil).set("locked_at", now).set("locked_by", owner).inc("token", 1L);
+        try {
+            Document lock = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                COLLECTION
+            );
+            JobLock jobLock = new JobLock(name, lock.get("token", Number.class).longValue(), now, lockedUntil);
+            log.debug("Acquired {}", jobLock);
+            return Optional.of(jobLock);
+        } catch (DuplicateKeyException e) {
+            log.debug("Lock {} is held by another instance", name);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks that a lock has neither expired nor been taken over by another instance.
+     *
+     * @param lock the lock acquired by this instance.
+     * @return whether the lock is still held.
+     */
+    public boolean isHeld(JobLock lock) {
+        return mongoTemplate.exists(
+            Query.query(Criteria.where("_id").is(lock.getName()).and("token").is(lock.getToken()).and("locked_until").gt(Instant.now())),
+            COLLECTION
+        );
+    }
+
+    /**
+     * Checks whether the job running on the calling thread has lost the lock taken for it by {@link SchedulerLock}.
+     * Long jobs should call it between units of work, and stop once it returns {@code true}.
+     *
+     * @return whether the current thread runs under a lock that it no longer holds.
+     */
+    public boolean hasLostCurrentLock() {
+        JobLock lock = currentLock.get();
+        return lock != null && !isHeld(lock);
+    }
+
+    /**
+     * Releases a lock acquired by this instance, unless another instance took it over since.
+     *
+     * @param lock the lock to release.
+     * @param minHoldTime how long, from its acquisition, the lock stays held at least.
+     * @return whether the lock was still held by this instance.
+     */
+    public boolean unlock(JobLock lock, Duration minHoldTime) {
+        Instant now = Instant.now();
+        Instant releasedAt = lock.getLockedAt().plus(minHoldTime);
+        UpdateResult result = mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(lock.getName()).and("token").is(lock.getToken())),
+            new Update().set("locked_until", releasedAt.isAfter(now) ? releasedAt : now),
+            COLLECTION
+        );
+        return result.getMatchedCount() > 0;
+    }
+
+    void setCurrentLock(JobLock lock) {
+        currentLock.set(lock);
+    }
+
+    void clearCurrentLock() {
+        currentLock.remove();
+    }
+}
@@ -0,0 +1,38 @@
+package com.demo.service.lock;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on at most one instance of the cluster at a time.
+ * <p>
+ * Every call first takes the named lock through {@link JobLockService}. When another instance holds it, the method is
+ * skipped and returns {@code null}, or zero for a primitive return type. Meant for {@code @Scheduled} methods, which
+ * fire on every instance at the same time.
+ * <p>
+ * Durations use the Spring Boot format, e.g. {@code "30s"}, {@code "1h"} or {@code "PT1H"}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface SchedulerLock {
+    /**
+     * @return the name of the lock, unique across the jobs of the application.
+     */
+    String name();
+
+    /**
+     * @return how long the lock is held if its holder dies without releasing it. It must exceed the longest run of the
+     * job, otherwise another instance may start the job while it is still running.
+     */
+    String leaseTime();
+
+    /**
+     * @return how long the lock is held at least, counted from its acquisition. It must exceed the clock skew between
+     * instances, so that an instance firing a bit later does not run a job that has just finished elsewhere.
+     */
+    String minHoldTime() default "0s";
+}
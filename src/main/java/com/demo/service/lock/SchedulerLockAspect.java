@@ -0,0 +1,90 @@
+package com.demo.service.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect running the methods annotated with {@link SchedulerLock} under their cluster-wide lock.
+ */
+@Aspect
+@Component
+public class SchedulerLockAspect {
+
+    public static final String RUNS_METER_NAME = "scheduler.lock.runs";
+    public static final String DURATION_METER_NAME = "scheduler.lock.duration";
+    public static final String LOST_METER_NAME = "scheduler.lock.lost";
+
+    private final Logger log = LoggerFactory.getLogger(SchedulerLockAspect.class);
+
+    private final JobLockService jobLockService;
+
+    private final MeterRegistry registry;
+
+    public SchedulerLockAspect(JobLockService jobLockService, MeterRegistry registry) {
+        this.jobLockService = jobLockService;
+        this.registry = registry;
+    }
+
+    @Around("@annotation(schedulerLock)")
+    public Object runLocked(ProceedingJoinPoint joinPoint, SchedulerLock schedulerLock) throws Throwable {
+        String name = schedulerLock.name();
+        Optional<JobLock> acquired = jobLockService.tryLock(name, DurationStyle.detectAndParse(schedulerLock.leaseTime()));
+        if (acquired.isEmpty()) {
+            runCounter(name, "skipped").increment();
+            log.debug("Skipped {}, its lock is held by another instance", name);
+            return skippedResult(((MethodSignature) joinPoint.getSignature()).getReturnType());
+        }
+
+        JobLock lock = acquired.get();
+        runCounter(name, "acquired").increment();
+        jobLockService.setCurrentLock(lock);
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(Timer.builder(DURATION_METER_NAME).description("Duration of the locked jobs").tag("job", name).register(registry));
+            jobLockService.clearCurrentLock();
+            Duration minHoldTime = DurationStyle.detectAndParse(schedulerLock.minHoldTime());
+            // a job that ran past its lease may have run concurrently with another instance, even if none took the lock
+            if (!jobLockService.unlock(lock, minHoldTime) || Instant.now().isAfter(lock.getLockedUntil())) {
+                Counter
+                    .builder(LOST_METER_NAME)
+                    .description("Jobs that lost their scheduler lock before completing")
+                    .tag("job", name)
+                    .register(registry)
+                    .increment();
+                log.warn("{} completed after its lease expired at {}, raise its lease time", name, lock.getLockedUntil());
+            }
+        }
+    }
+
+    private Counter runCounter(String name, String outcome) {
+        return Counter
+            .builder(RUNS_METER_NAME)
+            .description("Scheduled runs of the jobs, by whether they acquired their lock")
+            .tag("job", name)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static Object skippedResult(Class<?> returnType) {
+        // null cannot be unboxed to a primitive return type
+        if (returnType.isPrimitive() && returnType != void.class) {
+            return Array.get(Array.newInstance(returnType, 1), 0);
+        }
+        return null;
+    }
+}
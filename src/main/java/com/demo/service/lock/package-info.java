@@ -0,0 +1,4 @@
+/**
+ * Cluster-wide locks for scheduled jobs.
+ */
+package com.demo.service.lock;
@@ -2,6 +2,7 @@ package com.demo.service.mapper;
 
 import com.demo.domain.Category;
 import com.demo.service.dto.CategoryDTO;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 /**
@@ -40,27 +41,35 @@ public class CategoryMapper {
         category.setSlug(categoryDTO.getSlug());
         category.setActive(categoryDTO.getActive());
         category.setImageUrl(categoryDTO.getImageUrl());
+        if (categoryDTO.getVersion() != null) {
+            category.setVersion(categoryDTO.getVersion());
+        }
     }
 
-    public void partialUpdate(Category category, CategoryDTO categoryDTO) {
+    /**
+     * Compiles the non-null fields of the DTO into a {@code $set} update, leaving every other field untouched.
+     */
+    public Update toPartialUpdate(CategoryDTO categoryDTO) {
+        Update update = new Update();
         if (categoryDTO == null) {
-            return;
+            return update;
         }
         if (categoryDTO.getName() != null) {
-            category.setName(categoryDTO.getName());
+            update.set("name", categoryDTO.getName());
         }
         if (categoryDTO.getDescription() != null) {
-            category.setDescription(categoryDTO.getDescription());
+            update.set("description", categoryDTO.getDescription());
         }
         if (categoryDTO.getSlug() != null) {
-            category.setSlug(categoryDTO.getSlug());
+            update.set("slug", categoryDTO.getSlug());
         }
         if (categoryDTO.getActive() != null) {
-            category.setActive(categoryDTO.getActive());
+            update.set("active", categoryDTO.getActive());
         }
         if (categoryDTO.getImageUrl() != null) {
-            category.setImageUrl(categoryDTO.getImageUrl());
+            update.set("imageUrl", categoryDTO.getImageUrl());
         }
+        return update;
     }
 }
 
@@ -2,6 +2,7 @@ package com.demo.service.mapper;
 
 import com.demo.domain.Customer;
 import com.demo.service.dto.CustomerDTO;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -36,18 +37,24 @@ public class CustomerMapper {
         customer.setCity(dto.getCity());
         customer.setCountry(dto.getCountry());
         customer.setActive(dto.getActive());
+        if (dto.getVersion() != null) customer.setVersion(dto.getVersion());
     }
 
-    public void partialUpdate(Customer customer, CustomerDTO dto) {
-        if (dto == null) return;
-        if (dto.getFirstName() != null) customer.setFirstName(dto.getFirstName());
-        if (dto.getLastName() != null) customer.setLastName(dto.getLastName());
-        if (dto.getEmail() != null) customer.setEmail(dto.getEmail());
-        if (dto.getPhone() != null) customer.setPhone(dto.getPhone());
-        if (dto.getAddress() != null) customer.setAddress(dto.getAddress());
-        if (dto.getCity() != null) customer.setCity(dto.getCity());
-        if (dto.getCountry() != null) customer.setCountry(dto.getCountry());
-        if (dto.getActive() != null) customer.setActive(dto.getActive());
+    /**
+     * Compiles the non-null fields of the DTO into a {@code $set} update, leaving every other field untouched.
+     */
+    public Update toPartialUpdate(CustomerDTO dto) {
+        Update update = new Update();
+        if (dto == null) return update;
+        if (dto.getFirstName() != null) update.set("firstName", dto.getFirstName());
+        if (dto.getLastName() != null) update.set("lastName", dto.getLastName());
+        if (dto.getEmail() != null) update.set("email", dto.getEmail());
+        if (dto.getPhone() != null) update.set("phone", dto.getPhone());
+        if (dto.getAddress() != null) update.set("address", dto.getAddress());
+        if (dto.getCity() != null) update.set("city", dto.getCity());
+        if (dto.getCountry() != null) update.set("country", dto.getCountry());
+        if (dto.getActive() != null) update.set("active", dto.getActive());
+        return update;
     }
 }
 
@@ -2,6 +2,7 @@ package com.demo.service.mapper;
 
 import com.demo.domain.Order;
 import com.demo.service.dto.OrderDTO;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -34,17 +35,23 @@ public class OrderMapper {
         order.setShippingAddress(dto.getShippingAddress());
         order.setPaymentMethod(dto.getPaymentMethod());
         order.setNotes(dto.getNotes());
+        if (dto.getVersion() != null) order.setVersion(dto.getVersion());
     }
 
-    public void partialUpdate(Order order, OrderDTO dto) {
-        if (dto == null) return;
-        if (dto.getCustomerId() != null) order.setCustomerId(dto.getCustomerId());
-        if (dto.getOrderDate() != null) order.setOrderDate(dto.getOrderDate());
-        if (dto.getTotalAmount() != null) order.setTotalAmount(dto.getTotalAmount());
-        if (dto.getStatus() != null) order.setStatus(dto.getStatus());
-        if (dto.getShippingAddress() != null) order.setShippingAddress(dto.getShippingAddress());
-        if (dto.getPaymentMethod() != null) order.setPaymentMethod(dto.getPaymentMethod());
-        if (dto.getNotes() != null) order.setNotes(dto.getNotes());
+    /**
+     * Compiles the non-null fields of the DTO into a {@code $set} update, leaving every other field untouched.
+     */
+    public Update toPartialUpdate(OrderDTO dto) {
+        Update update = new Update();
+        if (dto == null) return update;
+        if (dto.getCustomerId() != null) update.set("customerId", dto.getCustomerId());
+        if (dto.getOrderDate() != null) update.set("orderDate", dto.getOrderDate());
+        if (dto.getTotalAmount() != null) update.set("totalAmount", dto.getTotalAmount());
+        if (dto.getStatus() != null) update.set("status", dto.getStatus());
+        if (dto.getShippingAddress() != null) update.set("shippingAddress", dto.getShippingAddress());
+        if (dto.getPaymentMethod() != null) update.set("paymentMethod", dto.getPaymentMethod());
+        if (dto.getNotes() != null) update.set("notes", dto.getNotes());
+        return update;
     }
 }
 
@@ -2,6 +2,7 @@ package com.demo.service.mapper;
 
 import com.demo.domain.Product;
 import com.demo.service.dto.ProductDTO;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 /**
@@ -44,33 +45,41 @@ public class ProductMapper {
         product.setCategoryId(productDTO.getCategoryId());
         product.setImageUrl(productDTO.getImageUrl());
         product.setActive(productDTO.getActive());
+        if (productDTO.getVersion() != null) {
+            product.setVersion(productDTO.getVersion());
+        }
     }
 
-    public void partialUpdate(Product product, ProductDTO productDTO) {
+    /**
+     * Compiles the non-null fields of the DTO into a {@code $set} update, leaving every other field untouched.
+     */
+    public Update toPartialUpdate(ProductDTO productDTO) {
+        Update update = new Update();
         if (productDTO == null) {
-            return;
+            return update;
         }
         if (productDTO.getName() != null) {
-            product.setName(productDTO.getName());
+            update.set("name", productDTO.getName());
         }
         if (productDTO.getDescription() != null) {
-            product.setDescription(productDTO.getDescription());
+            update.set("description", productDTO.getDescription());
         }
         if (productDTO.getPrice() != null) {
-            product.setPrice(productDTO.getPrice());
+            update.set("price", productDTO.getPrice());
         }
         if (productDTO.getStockQuantity() != null) {
-            product.setStockQuantity(productDTO.getStockQuantity());
+            update.set("stockQuantity", productDTO.getStockQuantity());
         }
         if (productDTO.getCategoryId() != null) {
-            product.setCategoryId(productDTO.getCategoryId());
+            update.set("categoryId", productDTO.getCategoryId());
         }
         if (productDTO.getImageUrl() != null) {
-            product.setImageUrl(productDTO.getImageUrl());
+            update.set("imageUrl", productDTO.getImageUrl());
         }
         if (productDTO.getActive() != null) {
-            product.setActive(productDTO.getActive());
+            update.set("active", productDTO.getActive());
         }
+        return update;
     }
 }
 
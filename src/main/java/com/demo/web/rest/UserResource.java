@@ -10,6 +10,7 @@ import com.demo.service.dto.AdminUserDTO;
 import com.demo.web.rest.errors.BadRequestAlertException;
 import com.demo.web.rest.errors.EmailAlreadyUsedException;
 import com.demo.web.rest.errors.LoginAlreadyUsedException;
+import com.demo.web.rest.util.ResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -30,7 +31,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing users.
@@ -1,14 +1,19 @@
 package com.demo.web.rest.controller;
 
+import com.demo.domain.Category;
 import com.demo.service.core.CategoryService;
+import com.demo.service.core.ModificationStampService;
 import com.demo.service.dto.CategoryDTO;
 import com.demo.web.rest.errors.BadRequestAlertException;
+import com.demo.web.rest.util.ETagUtil;
+import com.demo.web.rest.util.ResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
@@ -22,7 +27,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.demo.domain.Category}.
@@ -41,8 +45,11 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
-    public CategoryController(CategoryService categoryService) {
+    private final ModificationStampService modificationStampService;
+
+    public CategoryController(CategoryService categoryService, ModificationStampService modificationStampService) {
         this.categoryService = categoryService;
+        this.modificationStampService = modificationStampService;
     }
 
     /**
@@ -70,15 +77,18 @@ public class CategoryController {
      *
      * @param id the id of the categoryDTO to save.
      * @param categoryDTO the categoryDTO to update.
+     * @param ifMatch the {@code If-Match} header, if any, naming the version being replaced.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated categoryDTO,
      * or with status {@code 400 (Bad Request)} if the categoryDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the category was modified since the version named by {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the categoryDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<CategoryDTO> updateCategory(
         @PathVariable(value = "id", required = false) final String id,
-        @Valid @RequestBody CategoryDTO categoryDTO
+        @Valid @RequestBody CategoryDTO categoryDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Category : {}, {}", id, categoryDTO);
         if (categoryDTO.getId() == null) {
@@ -88,11 +98,16 @@ public class CategoryController {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        CategoryDTO result = categoryService.update(categoryDTO);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, categoryDTO.getId()))
-            .body(result);
+        return ETagUtil
+            .updateIfMatch(ifMatch, id, categoryDTO, categoryService::update)
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .eTag(ETagUtil.strongETag(result.getId(), result.getVersion()))
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, categoryDTO.getId()))
+                    .body(result)
+            )
+            .orElseGet(ETagUtil::preconditionFailed);
     }
 
     /**
@@ -131,14 +146,24 @@ public class CategoryController {
      * {@code GET  /categories} : get all the categories.
      *
      * @param pageable the pagination information.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<CategoryDTO>> getAllCategories(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
+    ) {
         log.debug("REST request to get a page of Categories");
+        String etag = ETagUtil.weakETag(modificationStampService.getCollectionStamp(Category.class), request);
+        if (ETagUtil.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ETagUtil.notModified(etag);
+        }
         Page<CategoryDTO> page = categoryService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        headers.setETag(etag);
+        ETagUtil.varyByAccept(headers);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -146,14 +171,24 @@ public class CategoryController {
      * {@code GET  /categories/active} : get all the active categories.
      *
      * @param pageable the pagination information.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of active categories in body.
      */
     @GetMapping("/active")
-    public ResponseEntity<List<CategoryDTO>> getAllActiveCategories(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<CategoryDTO>> getAllActiveCategories(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
+    ) {
         log.debug("REST request to get a page of active Categories");
+        String etag = ETagUtil.weakETag(modificationStampService.getCollectionStamp(Category.class), request);
+        if (ETagUtil.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ETagUtil.notModified(etag);
+        }
         Page<CategoryDTO> page = categoryService.findAllActive(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        headers.setETag(etag);
+        ETagUtil.varyByAccept(headers);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -164,6 +199,7 @@ public class CategoryController {
      * @param slug slug filter (partial match).
      * @param active active flag to filter.
      * @param pageable pagination information.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and list in body.
      */
     @GetMapping("/search")
@@ -171,12 +207,19 @@ public class CategoryController {
         @RequestParam(required = false) String name,
         @RequestParam(required = false) String slug,
         @RequestParam(required = false) Boolean active,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
     ) {
         log.debug("REST request to search Categories");
+        String etag = ETagUtil.weakETag(modificationStampService.getCollectionStamp(Category.class), request);
+        if (ETagUtil.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ETagUtil.notModified(etag);
+        }
         Page<CategoryDTO> page = categoryService.searchCategories(name, slug, active, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        headers.setETag(etag);
+        ETagUtil.varyByAccept(headers);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -184,13 +227,30 @@ public class CategoryController {
      * {@code GET  /categories/:id} : get the "id" category.
      *
      * @param id the id of the categoryDTO to retrieve.
+     * @param ifNoneMatch the {@code If-None-Match} header, if any.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the categoryDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> getCategory(@PathVariable String id) {
+    public ResponseEntity<CategoryDTO> getCategory(
+        @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        HttpServletRequest request
+    ) {
         log.debug("REST request to get Category : {}", id);
+        if (ifNoneMatch != null) {
+            Optional<String> etag = modificationStampService
+                .getVersion(Category.class, id)
+                .map(version -> ETagUtil.strongETag(id, version, request));
+            if (etag.isPresent() && ETagUtil.isNotModified(ifNoneMatch, etag.get())) {
+                return ETagUtil.notModified(etag.get());
+            }
+        }
         Optional<CategoryDTO> categoryDTO = categoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(categoryDTO);
+        HttpHeaders headers = new HttpHeaders();
+        ETagUtil.varyByAccept(headers);
+        categoryDTO.ifPresent(dto -> headers.setETag(ETagUtil.strongETag(dto.getId(), dto.getVersion(), request)));
+        return ResponseUtil.wrapOrNotFound(categoryDTO, headers);
     }
 
     /**
@@ -1,8 +1,11 @@
 package com.demo.web.rest.controller;
 
+import com.demo.service.core.IdempotencyService;
 import com.demo.service.core.CustomerService;
 import com.demo.service.dto.CustomerDTO;
 import com.demo.web.rest.errors.BadRequestAlertException;
+import com.demo.web.rest.util.ETagUtil;
+import com.demo.web.rest.util.ResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -22,7 +25,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -38,26 +40,40 @@ public class CustomerController {
 
     private final CustomerService customerService;
 
-    public CustomerController(CustomerService customerService) {
+    private final IdempotencyService idempotencyService;
+
+    public CustomerController(CustomerService customerService, IdempotencyService idempotencyService) {
         this.customerService = customerService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping("")
-    public ResponseEntity<CustomerDTO> createCustomer(@Valid @RequestBody CustomerDTO dto) throws URISyntaxException {
+    public ResponseEntity<CustomerDTO> createCustomer(
+        @Valid @RequestBody CustomerDTO dto,
+        @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
         log.debug("REST request to save Customer : {}", dto);
         if (dto.getId() != null) {
             throw new BadRequestAlertException("A new customer cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        CustomerDTO result = customerService.save(dto);
-        return ResponseEntity.created(new URI("/api/customers/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
-            .body(result);
+        return idempotencyService.execute(
+            ENTITY_NAME,
+            idempotencyKey,
+            CustomerDTO.class,
+            () -> {
+                CustomerDTO result = customerService.save(dto);
+                return ResponseEntity.created(URI.create("/api/customers/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
+                    .body(result);
+            }
+        );
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<CustomerDTO> updateCustomer(
         @PathVariable(value = "id", required = false) final String id,
-        @Valid @RequestBody CustomerDTO dto
+        @Valid @RequestBody CustomerDTO dto,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Customer : {}, {}", id, dto);
         if (dto.getId() == null) {
@@ -66,10 +82,16 @@ public class CustomerController {
         if (!Objects.equals(id, dto.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-        CustomerDTO result = customerService.update(dto);
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, dto.getId()))
-            .body(result);
+        return ETagUtil
+            .updateIfMatch(ifMatch, id, dto, customerService::update)
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .eTag(ETagUtil.strongETag(result.getId(), result.getVersion()))
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, dto.getId()))
+                    .body(result)
+            )
+            .orElseGet(ETagUtil::preconditionFailed);
     }
 
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
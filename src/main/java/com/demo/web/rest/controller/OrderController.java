@@ -1,8 +1,14 @@
 package com.demo.web.rest.controller;
 
+import com.demo.service.core.IdempotencyService;
 import com.demo.service.core.OrderService;
 import com.demo.service.dto.OrderDTO;
 import com.demo.web.rest.errors.BadRequestAlertException;
+import com.demo.web.rest.util.ETagUtil;
+import com.demo.web.rest.util.NdjsonResponseBody;
+import com.demo.web.rest.util.ResponseUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -23,10 +29,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -42,26 +48,43 @@ public class OrderController {
 
     private final OrderService orderService;
 
-    public OrderController(OrderService orderService) {
+    private final ObjectWriter orderWriter;
+
+    private final IdempotencyService idempotencyService;
+
+    public OrderController(OrderService orderService, ObjectMapper objectMapper, IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.orderWriter = objectMapper.writerFor(OrderDTO.class);
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping("")
-    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO dto) throws URISyntaxException {
+    public ResponseEntity<OrderDTO> createOrder(
+        @Valid @RequestBody OrderDTO dto,
+        @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
         log.debug("REST request to save Order : {}", dto);
         if (dto.getId() != null) {
             throw new BadRequestAlertException("A new order cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        OrderDTO result = orderService.save(dto);
-        return ResponseEntity.created(new URI("/api/orders/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
-            .body(result);
+        return idempotencyService.execute(
+            ENTITY_NAME,
+            idempotencyKey,
+            OrderDTO.class,
+            () -> {
+                OrderDTO result = orderService.save(dto);
+                return ResponseEntity.created(URI.create("/api/orders/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
+                    .body(result);
+            }
+        );
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<OrderDTO> updateOrder(
         @PathVariable(value = "id", required = false) final String id,
-        @Valid @RequestBody OrderDTO dto
+        @Valid @RequestBody OrderDTO dto,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Order : {}, {}", id, dto);
         if (dto.getId() == null) {
@@ -70,10 +93,16 @@ public class OrderController {
         if (!Objects.equals(id, dto.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-        OrderDTO result = orderService.update(dto);
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, dto.getId()))
-            .body(result);
+        return ETagUtil
+            .updateIfMatch(ifMatch, id, dto, orderService::update)
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .eTag(ETagUtil.strongETag(result.getId(), result.getVersion()))
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, dto.getId()))
+                    .body(result)
+            )
+            .orElseGet(ETagUtil::preconditionFailed);
     }
 
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
@@ -136,6 +165,33 @@ public class OrderController {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /orders/stream} : stream every order matching the search filters as newline-delimited JSON.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+        @RequestParam(required = false) String customerId,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String paymentMethod,
+        @RequestParam(required = false) String startDate,
+        @RequestParam(required = false) String endDate,
+        @RequestParam(required = false) BigDecimal minTotal,
+        @RequestParam(required = false) BigDecimal maxTotal
+    ) {
+        log.debug("REST request to stream Orders");
+        Instant startInstant = parseDate(startDate, false);
+        Instant endInstant = parseDate(endDate, true);
+        return ResponseEntity
+            .ok()
+            .contentType(NdjsonResponseBody.APPLICATION_NDJSON)
+            .body(
+                NdjsonResponseBody.of(
+                    orderWriter,
+                    () -> orderService.streamOrders(customerId, status, paymentMethod, startInstant, endInstant, minTotal, maxTotal)
+                )
+            );
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrder(@PathVariable String id) {
         log.debug("REST request to get Order : {}", id);
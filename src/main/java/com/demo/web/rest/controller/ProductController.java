@@ -1,9 +1,19 @@
 package com.demo.web.rest.controller;
 
+import com.demo.domain.Product;
 import com.demo.service.core.ExcelExportService;
+import com.demo.service.core.IdempotencyService;
+import com.demo.service.core.ModificationStampService;
 import com.demo.service.core.ProductService;
+import com.demo.service.core.StockWriteCombiner;
 import com.demo.service.dto.ProductDTO;
+import com.demo.service.dto.StockReservationDTO;
 import com.demo.web.rest.errors.BadRequestAlertException;
+import com.demo.web.rest.util.ETagUtil;
+import com.demo.web.rest.util.NdjsonResponseBody;
+import com.demo.web.rest.util.ResponseUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -16,6 +26,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -27,10 +39,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.demo.domain.Product}.
@@ -52,30 +64,55 @@ public class ProductController {
 
     private final ProductService productService;
     private final ExcelExportService excelExportService;
+    private final ObjectWriter productWriter;
+    private final ModificationStampService modificationStampService;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final IdempotencyService idempotencyService;
 
-    public ProductController(ProductService productService, ExcelExportService excelExportService) {
+    public ProductController(
+        ProductService productService,
+        ExcelExportService excelExportService,
+        ObjectMapper objectMapper,
+        ModificationStampService modificationStampService,
+        StockWriteCombiner stockWriteCombiner,
+        IdempotencyService idempotencyService
+    ) {
         this.productService = productService;
         this.excelExportService = excelExportService;
+        this.productWriter = objectMapper.writerFor(ProductDTO.class);
+        this.modificationStampService = modificationStampService;
+        this.stockWriteCombiner = stockWriteCombiner;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * {@code POST  /products} : Create a new product.
      *
      * @param productDTO the productDTO to create.
+     * @param idempotencyKey the {@code Idempotency-Key} header, if any; retries with the same key replay the first response.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new productDTO, or with status {@code 400 (Bad Request)} if the product has already an ID.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
-    public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO) throws URISyntaxException {
+    public ResponseEntity<ProductDTO> createProduct(
+        @Valid @RequestBody ProductDTO productDTO,
+        @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
         log.debug("REST request to save Product : {}", productDTO);
         if (productDTO.getId() != null) {
             throw new BadRequestAlertException("A new product cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        ProductDTO result = productService.save(productDTO);
-        return ResponseEntity
-            .created(new URI("/api/products/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
-            .body(result);
+        return idempotencyService.execute(
+            ENTITY_NAME,
+            idempotencyKey,
+            ProductDTO.class,
+            () -> {
+                ProductDTO result = productService.save(productDTO);
+                return ResponseEntity
+                    .created(URI.create("/api/products/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
+                    .body(result);
+            }
+        );
     }
 
     /**
@@ -83,15 +120,18 @@ public class ProductController {
      *
      * @param id the id of the productDTO to save.
      * @param productDTO the productDTO to update.
+     * @param ifMatch the {@code If-Match} header, if any, naming the version being replaced.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productDTO,
      * or with status {@code 400 (Bad Request)} if the productDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the product was modified since the version named by {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the productDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
         @PathVariable(value = "id", required = false) final String id,
-        @Valid @RequestBody ProductDTO productDTO
+        @Valid @RequestBody ProductDTO productDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Product : {}, {}", id, productDTO);
         if (productDTO.getId() == null) {
@@ -101,11 +141,16 @@ public class ProductController {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        ProductDTO result = productService.update(productDTO);
-        return ResponseEntity
-            .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, productDTO.getId()))
-            .body(result);
+        return ETagUtil
+            .updateIfMatch(ifMatch, id, productDTO, productService::update)
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .eTag(ETagUtil.strongETag(result.getId(), result.getVersion()))
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, productDTO.getId()))
+                    .body(result)
+            )
+            .orElseGet(ETagUtil::preconditionFailed);
     }
 
     /**
@@ -140,18 +185,80 @@ public class ProductController {
         );
     }
 
+    /**
+     * {@code POST  /products/:id/stock/reserve} : reserve stock of the "id" product.
+     * <p>
+     * Concurrent reservations of the same product are combined into one update, see {@link StockWriteCombiner}.
+     *
+     * @param id the id of the product.
+     * @param quantity the quantity to reserve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productDTO,
+     * or with status {@code 404 (Not Found)} if the product is not found,
+     * or with status {@code 409 (Conflict)} if not enough stock is left.
+     */
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<ProductDTO> reserveStock(@PathVariable String id, @RequestParam int quantity) {
+        log.debug("REST request to reserve {} of Product : {}", quantity, id);
+        checkQuantity(quantity);
+        return ResponseUtil.wrapOrNotFound(stockWriteCombiner.reserveStock(id, quantity));
+    }
+
+    /**
+     * {@code POST  /products/:id/stock/release} : release previously reserved stock of the "id" product.
+     *
+     * @param id the id of the product.
+     * @param quantity the quantity to release.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productDTO,
+     * or with status {@code 404 (Not Found)} if the product is not found.
+     */
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<ProductDTO> releaseStock(@PathVariable String id, @RequestParam int quantity) {
+        log.debug("REST request to release {} of Product : {}", quantity, id);
+        checkQuantity(quantity);
+        return ResponseUtil.wrapOrNotFound(productService.releaseStock(id, quantity));
+    }
+
+    /**
+     * {@code POST  /products/stock/reserve} : reserve stock of several products as a unit.
+     *
+     * @param reservations the products and quantities to reserve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated products,
+     * or with status {@code 409 (Conflict)} if a product is missing or has not enough stock, in which case nothing is reserved.
+     */
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<List<ProductDTO>> reserveStock(@RequestBody List<StockReservationDTO> reservations) {
+        log.debug("REST request to reserve stock of {} Products", reservations.size());
+        for (StockReservationDTO reservation : reservations) {
+            if (reservation.getProductId() == null) {
+                throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+            }
+            checkQuantity(reservation.getQuantity());
+        }
+        return ResponseEntity.ok().body(productService.reserveStock(reservations));
+    }
+
     /**
      * {@code GET  /products} : get all the products.
      *
      * @param pageable the pagination information.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<ProductDTO>> getAllProducts(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<ProductDTO>> getAllProducts(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
+    ) {
         log.debug("REST request to get a page of Products");
+        String etag = ETagUtil.weakETag(modificationStampService.getCollectionStamp(Product.class), request);
+        if (ETagUtil.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ETagUtil.notModified(etag);
+        }
         Page<ProductDTO> page = productService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        headers.setETag(etag);
+        ETagUtil.varyByAccept(headers);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -159,14 +266,24 @@ public class ProductController {
      * {@code GET  /products/active} : get all the active products.
      *
      * @param pageable the pagination information.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of active products in body.
      */
     @GetMapping("/active")
-    public ResponseEntity<List<ProductDTO>> getAllActiveProducts(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<ProductDTO>> getAllActiveProducts(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
+    ) {
         log.debug("REST request to get a page of active Products");
+        String etag = ETagUtil.weakETag(modificationStampService.getCollectionStamp(Product.class), request);
+        if (ETagUtil.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ETagUtil.notModified(etag);
+        }
         Page<ProductDTO> page = productService.findAllActive(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        headers.setETag(etag);
+        ETagUtil.varyByAccept(headers);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -174,13 +291,30 @@ public class ProductController {
      * {@code GET  /products/:id} : get the "id" product.
      *
      * @param id the id of the productDTO to retrieve.
+     * @param ifNoneMatch the {@code If-None-Match} header, if any.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the productDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProduct(@PathVariable String id) {
+    public ResponseEntity<ProductDTO> getProduct(
+        @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        HttpServletRequest request
+    ) {
         log.debug("REST request to get Product : {}", id);
+        if (ifNoneMatch != null) {
+            Optional<String> etag = modificationStampService
+                .getVersion(Product.class, id)
+                .map(version -> ETagUtil.strongETag(id, version, request));
+            if (etag.isPresent() && ETagUtil.isNotModified(ifNoneMatch, etag.get())) {
+                return ETagUtil.notModified(etag.get());
+            }
+        }
         Optional<ProductDTO> productDTO = productService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(productDTO);
+        HttpHeaders headers = new HttpHeaders();
+        ETagUtil.varyByAccept(headers);
+        productDTO.ifPresent(dto -> headers.setETag(ETagUtil.strongETag(dto.getId(), dto.getVersion(), request)));
+        return ResponseUtil.wrapOrNotFound(productDTO, headers);
     }
 
     /**
@@ -205,6 +339,7 @@ public class ProductController {
      * @param minPrice the minimum price.
      * @param maxPrice the maximum price.
      * @param pageable the pagination information.
+     * @param request the HTTP request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
      */
     @GetMapping("/search")
@@ -214,15 +349,47 @@ public class ProductController {
         @RequestParam(required = false) Boolean active,
         @RequestParam(required = false) BigDecimal minPrice,
         @RequestParam(required = false) BigDecimal maxPrice,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
     ) {
         log.debug("REST request to search Products with filters");
+        String etag = ETagUtil.weakETag(modificationStampService.getCollectionStamp(Product.class), request);
+        if (ETagUtil.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ETagUtil.notModified(etag);
+        }
         Page<ProductDTO> page = productService.searchProducts(name, categoryId, active, minPrice, maxPrice, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        headers.setETag(etag);
+        ETagUtil.varyByAccept(headers);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /products/stream} : stream every product matching the search filters as newline-delimited JSON.
+     *
+     * @param name the name to search (partial match, case-insensitive).
+     * @param categoryId the category ID to filter by.
+     * @param active the active status to filter by.
+     * @param minPrice the minimum price.
+     * @param maxPrice the maximum price.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and one product per line in body.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String categoryId,
+        @RequestParam(required = false) Boolean active,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice
+    ) {
+        log.debug("REST request to stream Products with filters");
+        return ResponseEntity
+            .ok()
+            .contentType(NdjsonResponseBody.APPLICATION_NDJSON)
+            .body(NdjsonResponseBody.of(productWriter, () -> productService.streamProducts(name, categoryId, active, minPrice, maxPrice)));
+    }
+
     /**
      * {@code GET  /products/export} : export all products to CSV.
      *
@@ -234,9 +401,9 @@ public class ProductController {
         String normalizedFormat = format.toLowerCase(Locale.ROOT);
         log.debug("REST request to export Products in format {}", normalizedFormat);
 
-        try {
+        try (Stream<ProductDTO> products = productService.streamAllForExport()) {
             if ("xlsx".equals(normalizedFormat)) {
-                byte[] data = excelExportService.exportProducts(productService.getAllForExport());
+                byte[] data = excelExportService.exportProducts(products::iterator);
                 response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
                 response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.xlsx");
                 response.getOutputStream().write(data);
@@ -245,7 +412,6 @@ public class ProductController {
             }
 
             // default TXT export (tab-separated)
-            List<ProductDTO> products = productService.getAllForExport();
             response.setContentType("text/plain");
             response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products.txt");
 
@@ -264,7 +430,7 @@ public class ProductController {
             outputStream.write((header + "\n").getBytes(StandardCharsets.UTF_8));
 
             int counter = 1;
-            for (ProductDTO product : products) {
+            for (ProductDTO product : (Iterable<ProductDTO>) products::iterator) {
                 String line = String.join(
                     "\t",
                     formatCounter(counter++),
@@ -312,6 +478,16 @@ public class ProductController {
         return ResponseEntity.ok().body(statistics);
     }
 
+    private void checkQuantity(Integer quantity) {
+        if (quantity == null || quantity < 1 || quantity > StockReservationDTO.MAX_QUANTITY) {
+            throw new BadRequestAlertException(
+                "Quantity must be between 1 and " + StockReservationDTO.MAX_QUANTITY,
+                ENTITY_NAME,
+                "quantityinvalid"
+            );
+        }
+    }
+
     private String sanitize(String value) {
         if (value == null) {
             return "";
@@ -3,11 +3,10 @@ package com.demo.web.rest.errors;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
-import org.zalando.problem.AbstractThrowableProblem;
 import org.zalando.problem.Status;
 
 @SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
-public class BadRequestAlertException extends AbstractThrowableProblem {
+public class BadRequestAlertException extends StacklessProblem {
 
     private static final long serialVersionUID = 1L;
 
@@ -20,7 +19,7 @@ public class BadRequestAlertException extends AbstractThrowableProblem {
     }
 
     public BadRequestAlertException(URI type, String defaultMessage, String entityName, String errorKey) {
-        super(type, defaultMessage, Status.BAD_REQUEST, null, null, null, getAlertParameters(entityName, errorKey));
+        super(type, defaultMessage, Status.BAD_REQUEST, getAlertParameters(entityName, errorKey));
         this.entityName = entityName;
         this.errorKey = errorKey;
     }
@@ -0,0 +1,25 @@
+package com.demo.web.rest.errors;
+
+import java.util.Map;
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class EntityNotFoundException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, Object> PARAMETERS = Map.of("message", "error.idnotfound");
+
+    public EntityNotFoundException() {
+        super(ErrorConstants.ENTITY_NOT_FOUND_TYPE, "Entity not found", Status.NOT_FOUND, PARAMETERS);
+    }
+
+    public EntityNotFoundException(String entityName) {
+        super(
+            ErrorConstants.ENTITY_NOT_FOUND_TYPE,
+            "Entity not found",
+            Status.NOT_FOUND,
+            Map.of("message", "error.idnotfound", "params", entityName)
+        );
+    }
+}
@@ -12,6 +12,13 @@ public final class ErrorConstants {
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI INSUFFICIENT_STOCK_TYPE = URI.create(PROBLEM_BASE_URL + "/insufficient-stock");
+    public static final URI IDEMPOTENCY_KEY_IN_PROGRESS_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-key-in-progress");
+    public static final URI IDEMPOTENCY_RESPONSE_UNAVAILABLE_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-response-unavailable");
+    public static final URI RATE_LIMIT_EXCEEDED_TYPE = URI.create(PROBLEM_BASE_URL + "/rate-limit-exceeded");
+    public static final URI ENTITY_NOT_FOUND_TYPE = URI.create(PROBLEM_BASE_URL + "/entity-not-found");
+    public static final URI PASSWORD_HASHING_REJECTED_TYPE = URI.create(PROBLEM_BASE_URL + "/password-hashing-rejected");
+    public static final URI STOCK_RESERVATION_UNAVAILABLE_TYPE = URI.create(PROBLEM_BASE_URL + "/stock-reservation-unavailable");
 
     private ErrorConstants() {}
 }
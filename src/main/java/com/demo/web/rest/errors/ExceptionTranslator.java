@@ -2,7 +2,6 @@ package com.demo.web.rest.errors;
 
 import java.net.URI;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -10,10 +9,14 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -44,13 +47,15 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
     private static final String PATH_KEY = "path";
     private static final String VIOLATIONS_KEY = "violations";
 
+    private final Logger log = LoggerFactory.getLogger(ExceptionTranslator.class);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    private final Environment env;
+    private final boolean production;
 
     public ExceptionTranslator(Environment env) {
-        this.env = env;
+        this.production = Arrays.asList(env.getActiveProfiles()).contains(JHipsterConstants.SPRING_PROFILE_PRODUCTION);
     }
 
     /**
@@ -120,12 +125,7 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         com.demo.service.EmailAlreadyUsedException ex,
         NativeWebRequest request
     ) {
-        EmailAlreadyUsedException problem = new EmailAlreadyUsedException();
-        return create(
-            problem,
-            request,
-            HeaderUtil.createFailureAlert(applicationName, true, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
-        );
+        return createBadRequestAlert(new EmailAlreadyUsedException());
     }
 
     @ExceptionHandler
@@ -133,26 +133,83 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         com.demo.service.UsernameAlreadyUsedException ex,
         NativeWebRequest request
     ) {
-        LoginAlreadyUsedException problem = new LoginAlreadyUsedException();
-        return create(
-            problem,
-            request,
-            HeaderUtil.createFailureAlert(applicationName, true, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
-        );
+        return createBadRequestAlert(new LoginAlreadyUsedException());
     }
 
     @ExceptionHandler
     public ResponseEntity<Problem> handleInvalidPasswordException(com.demo.service.InvalidPasswordException ex, NativeWebRequest request) {
-        return create(new InvalidPasswordException(), request);
+        return respond(new InvalidPasswordException(), null);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInsufficientStockException(
+        com.demo.service.InsufficientStockException ex,
+        NativeWebRequest request
+    ) {
+        return respond(new InsufficientStockException(ex.getProductId()), null);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleStockReservationUnavailableException(
+        com.demo.service.StockReservationUnavailableException ex,
+        NativeWebRequest request
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return respond(new StockReservationUnavailableException(ex.getProductId()), headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyKeyInProgressException(
+        com.demo.service.IdempotencyKeyInProgressException ex,
+        NativeWebRequest request
+    ) {
+        return respond(new IdempotencyKeyInProgressException(), null);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyResponseUnavailableException(
+        com.demo.service.IdempotencyResponseUnavailableException ex,
+        NativeWebRequest request
+    ) {
+        return respond(new IdempotencyResponseUnavailableException(), null);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleEntityNotFoundException(com.demo.service.EntityNotFoundException ex, NativeWebRequest request) {
+        return respond(new EntityNotFoundException(ex.getEntityName()), null);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleRateLimitExceededException(
+        com.demo.security.ratelimit.RateLimitExceededException ex,
+        NativeWebRequest request
+    ) {
+        // Retry-After is expressed in whole seconds, so round up to never invite the client back too early
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return respond(new RateLimitExceededException(retryAfterSeconds), headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePasswordHashingRejectedException(
+        com.demo.security.PasswordHashingRejectedException ex,
+        NativeWebRequest request
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return respond(new PasswordHashingRejectedException(), headers);
     }
 
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
-        return create(
-            ex,
-            request,
-            HeaderUtil.createFailureAlert(applicationName, true, ex.getEntityName(), ex.getErrorKey(), ex.getMessage())
-        );
+        return createBadRequestAlert(ex);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleStacklessProblem(StacklessProblem ex, NativeWebRequest request) {
+        return respond(ex, null);
     }
 
     @ExceptionHandler
@@ -163,9 +220,7 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
 
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
-        Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
-
-        if (activeProfiles.contains(JHipsterConstants.SPRING_PROFILE_PRODUCTION)) {
+        if (production) {
             if (throwable instanceof HttpMessageConversionException) {
                 return Problem
                     .builder()
@@ -212,6 +267,26 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
             );
     }
 
+    /**
+     * Fast path for the expected errors: the problem is answered as is, without the content negotiation, the
+     * post-processing and the warning that {@code create} goes through for every client error.
+     */
+    private ResponseEntity<Problem> respond(StacklessProblem problem, @Nullable HttpHeaders headers) {
+        log.debug("{}: {}", problem.getStatus(), problem.getTitle());
+        return ResponseEntity
+            .status(problem.getStatus().getStatusCode())
+            .headers(headers)
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .body(problem);
+    }
+
+    private ResponseEntity<Problem> createBadRequestAlert(BadRequestAlertException problem) {
+        return respond(
+            problem,
+            HeaderUtil.createFailureAlert(applicationName, true, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
+        );
+    }
+
     private boolean containsPackageName(String message) {
         // This list is for sure not complete
         return StringUtils.containsAny(message, "org.", "java.", "net.", "javax.", "com.", "io.", "de.", "com.demo");
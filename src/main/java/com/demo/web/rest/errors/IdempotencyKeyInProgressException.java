@@ -0,0 +1,13 @@
+package com.demo.web.rest.errors;
+
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class IdempotencyKeyInProgressException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyInProgressException() {
+        super(ErrorConstants.IDEMPOTENCY_KEY_IN_PROGRESS_TYPE, "Request with this idempotency key is still in progress", Status.CONFLICT);
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.web.rest.errors;
+
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class IdempotencyResponseUnavailableException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyResponseUnavailableException() {
+        super(
+            ErrorConstants.IDEMPOTENCY_RESPONSE_UNAVAILABLE_TYPE,
+            "Request with this idempotency key was already executed, its response is unavailable",
+            Status.CONFLICT
+        );
+    }
+}
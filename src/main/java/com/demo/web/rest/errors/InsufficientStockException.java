@@ -0,0 +1,19 @@
+package com.demo.web.rest.errors;
+
+import java.util.Map;
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class InsufficientStockException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public InsufficientStockException(String productId) {
+        super(
+            ErrorConstants.INSUFFICIENT_STOCK_TYPE,
+            "Insufficient stock",
+            Status.CONFLICT,
+            Map.of("message", "error.insufficientstock", "productId", productId)
+        );
+    }
+}
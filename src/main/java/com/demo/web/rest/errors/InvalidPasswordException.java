@@ -1,10 +1,9 @@
 package com.demo.web.rest.errors;
 
-import org.zalando.problem.AbstractThrowableProblem;
 import org.zalando.problem.Status;
 
 @SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
-public class InvalidPasswordException extends AbstractThrowableProblem {
+public class InvalidPasswordException extends StacklessProblem {
 
     private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,21 @@
+package com.demo.web.rest.errors;
+
+import java.util.Map;
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class PasswordHashingRejectedException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, Object> PARAMETERS = Map.of("message", "error.passwordhashingrejected");
+
+    public PasswordHashingRejectedException() {
+        super(
+            ErrorConstants.PASSWORD_HASHING_REJECTED_TYPE,
+            "Too many password operations in progress",
+            Status.SERVICE_UNAVAILABLE,
+            PARAMETERS
+        );
+    }
+}
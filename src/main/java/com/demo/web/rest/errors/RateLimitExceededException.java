@@ -0,0 +1,19 @@
+package com.demo.web.rest.errors;
+
+import java.util.Map;
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class RateLimitExceededException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(
+            ErrorConstants.RATE_LIMIT_EXCEEDED_TYPE,
+            "Rate limit exceeded",
+            Status.TOO_MANY_REQUESTS,
+            Map.of("message", "error.ratelimitexceeded", "retryAfter", retryAfterSeconds)
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo.web.rest.errors;
+
+import java.net.URI;
+import java.util.Map;
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.StatusType;
+
+/**
+ * Base of the problems answered for expected errors, such as invalid input, a missing entity or a request turned away
+ * under load.
+ * <p>
+ * They are part of the normal flow of a request, and can be raised for every request of a scanner or a misbehaving
+ * client: they capture no stack trace, whose capture would cost more than the rest of the error response, and
+ * {@link ExceptionTranslator} answers them without content negotiation nor logging.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public abstract class StacklessProblem extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    protected StacklessProblem(URI type, String title, StatusType status) {
+        super(type, title, status);
+    }
+
+    protected StacklessProblem(URI type, String title, StatusType status, Map<String, Object> parameters) {
+        super(type, title, status, null, null, null, parameters);
+    }
+
+    @Override
+    public final Throwable fillInStackTrace() {
+        return this;
+    }
+}
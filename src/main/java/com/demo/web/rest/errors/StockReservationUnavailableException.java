@@ -0,0 +1,19 @@
+package com.demo.web.rest.errors;
+
+import java.util.Map;
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class StockReservationUnavailableException extends StacklessProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public StockReservationUnavailableException(String productId) {
+        super(
+            ErrorConstants.STOCK_RESERVATION_UNAVAILABLE_TYPE,
+            "Stock reservation unavailable",
+            Status.SERVICE_UNAVAILABLE,
+            Map.of("message", "error.stockreservationunavailable", "productId", productId)
+        );
+    }
+}
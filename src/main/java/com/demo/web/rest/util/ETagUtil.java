@@ -0,0 +1,221 @@
+package com.demo.web.rest.util;
+
+import com.demo.service.dto.VersionedDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility class for entity tags and conditional {@code GET} requests.
+ * <p>
+ * Single entities get a strong ETag built from their id and version, which also serves as the validator of
+ * {@code If-Match} on updates. Pages get a weak ETag built from the collection's modification stamp and the request's
+ * query, since the same page can be rendered from equivalent but not byte-identical data.
+ * <p>
+ * Reads are served as JSON, Smile or CBOR depending on the {@code Accept} header. Each representation gets its own
+ * ETag, so that a client or cache never revalidates one format with the ETag of another, and the responses carry
+ * {@code Vary: Accept}.
+ */
+public final class ETagUtil {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String REPRESENTATION_SEPARATOR = "+";
+
+    /**
+     * The representations of the REST API, in the order in which content negotiation prefers them.
+     */
+    private static final List<MediaType> REPRESENTATIONS = List.of(
+        MediaType.APPLICATION_JSON,
+        MediaType.parseMediaType("application/x-jackson-smile"),
+        MediaType.APPLICATION_CBOR
+    );
+
+    private ETagUtil() {}
+
+    /**
+     * Builds the strong ETag of a single entity.
+     *
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @return the quoted ETag.
+     */
+    public static String strongETag(String id, Long version) {
+        return "\"" + id + "-" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Builds the strong ETag of a single entity in the representation negotiated for the request. JSON keeps the
+     * plain ETag of {@link #strongETag(String, Long)}, other representations add their subtype to it.
+     *
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @param request the current request, whose {@code Accept} header selects the representation.
+     * @return the quoted ETag.
+     */
+    public static String strongETag(String id, Long version, HttpServletRequest request) {
+        MediaType representation = representation(request);
+        if (representation.equals(MediaType.APPLICATION_JSON)) {
+            return strongETag(id, version);
+        }
+        return "\"" + id + "-" + (version != null ? version : 0L) + REPRESENTATION_SEPARATOR + representation.getSubtype() + "\"";
+    }
+
+    /**
+     * Extracts the entity version named by an {@code If-Match} header, using strong comparison.
+     *
+     * @param ifMatch the {@code If-Match} header value.
+     * @param id the id of the entity being updated.
+     * @return the version, or empty if the header does not name a version of this entity.
+     */
+    public static Optional<Long> parseVersion(String ifMatch, String id) {
+        String prefix = "\"" + id + "-";
+        String etag = ifMatch.trim();
+        if (!etag.startsWith(prefix) || !etag.endsWith("\"") || etag.length() <= prefix.length() + 1) {
+            return Optional.empty();
+        }
+        String version = etag.substring(prefix.length(), etag.length() - 1);
+        int representation = version.indexOf(REPRESENTATION_SEPARATOR);
+        try {
+            return Optional.of(Long.parseLong(representation < 0 ? version : version.substring(0, representation)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Applies a full update, checking the {@code If-Match} header of the request against the version of the entity.
+     * <p>
+     * A header naming a version makes the update conditional on it, {@code *} or no header leave the version of the
+     * body in charge. Without a header, a stale body version still fails the update, which the caller reports as a
+     * conflict.
+     *
+     * @param ifMatch the {@code If-Match} header value, may be null.
+     * @param id the id of the entity being updated.
+     * @param dto the new state of the entity.
+     * @param update the update, failing with an {@link OptimisticLockingFailureException} on a stale version.
+     * @param <T> the DTO type.
+     * @return the updated entity, or empty if {@code If-Match} is malformed or stale.
+     */
+    public static <T extends VersionedDTO> Optional<T> updateIfMatch(String ifMatch, String id, T dto, UnaryOperator<T> update) {
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            Optional<Long> version = parseVersion(ifMatch, id);
+            if (version.isEmpty()) {
+                return Optional.empty();
+            }
+            dto.setVersion(version.get());
+        }
+        try {
+            return Optional.of(update.apply(dto));
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Builds the weak ETag of a list or search page.
+     *
+     * @param collectionStamp the modification stamp of the underlying collection.
+     * @param request the current request, whose path and query select the page and whose {@code Accept} header
+     * selects the representation.
+     * @return the quoted weak ETag.
+     */
+    public static String weakETag(String collectionStamp, HttpServletRequest request) {
+        String key = collectionStamp + "|" + request.getRequestURI() + "?" + request.getQueryString() + "|" + representation(request);
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against the current ETag, using weak comparison.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header value, may be null.
+     * @param etag the current ETag.
+     * @return true if the client's copy is still current.
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        String current = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || stripWeakPrefix(trimmed).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds an empty {@code 304 (Not Modified)} response.
+     *
+     * @param etag the current ETag.
+     * @param <T> the response body type.
+     * @return the response entity.
+     */
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * Marks a response as negotiated on the {@code Accept} header, so that caches keep one copy per representation.
+     *
+     * @param headers the headers of the response.
+     */
+    public static void varyByAccept(HttpHeaders headers) {
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Builds an empty {@code 412 (Precondition Failed)} response, for updates whose {@code If-Match} header is stale.
+     *
+     * @param <T> the response body type.
+     * @return the response entity.
+     */
+    public static <T> ResponseEntity<T> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    /**
+     * Resolves the representation that content negotiation picks for the request: the first of {@link #REPRESENTATIONS}
+     * compatible with the most preferred accepted type, or JSON when the request accepts anything or nothing valid.
+     */
+    private static MediaType representation(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (!StringUtils.hasText(accept)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType representation : REPRESENTATIONS) {
+                if (acceptedType.isCompatibleWith(representation)) {
+                    return representation;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a stream of objects as newline-delimited JSON ({@code application/x-ndjson}).
+ * <p>
+ * Objects are serialized one at a time straight to the response with a single Jackson generator, and the output is
+ * flushed every {@value #FLUSH_INTERVAL} records, so heap usage does not grow with the size of the result.
+ */
+public final class NdjsonResponseBody {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private NdjsonResponseBody() {}
+
+    /**
+     * Creates a response body streaming the given source.
+     *
+     * @param objectMapper the mapper used to serialize each record.
+     * @param source supplies the records; the stream is opened and closed inside the response write.
+     * @param <T> the record type.
+     * @return the streaming response body.
+     */
+    public static <T> StreamingResponseBody of(ObjectMapper objectMapper, Supplier<Stream<T>> source) {
+        return of(objectMapper.writer(), source);
+    }
+
+    /**
+     * Creates a response body streaming the given source with a shared writer.
+     * <p>
+     * A writer created once for the record type, with {@link ObjectMapper#writerFor(Class)}, resolves its serializer
+     * once instead of looking it up for each record.
+     *
+     * @param objectWriter the writer used to serialize each record.
+     * @param source supplies the records; the stream is opened and closed inside the response write.
+     * @param <T> the record type.
+     * @return the streaming response body.
+     */
+    public static <T> StreamingResponseBody of(ObjectWriter objectWriter, Supplier<Stream<T>> source) {
+        ObjectWriter writer = objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (Stream<T> records = source.get(); JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                int count = 0;
+                Iterator<T> iterator = records.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    if (++count % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+                if (count > 0) {
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+    }
+}
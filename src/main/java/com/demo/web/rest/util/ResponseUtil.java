@@ -0,0 +1,43 @@
+package com.demo.web.rest.util;
+
+import com.demo.web.rest.errors.EntityNotFoundException;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utility class for the responses of single entities.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.ResponseUtil}, which throws a {@code ResponseStatusException} with a full stack
+ * trace, a missing entity throws a stackless {@link EntityNotFoundException}: requests for ids that do not exist are
+ * the bulk of the traffic of scanners.
+ */
+public final class ResponseUtil {
+
+    private ResponseUtil() {}
+
+    /**
+     * Wraps an entity in a {@code 200 OK} response.
+     *
+     * @param maybeResponse the entity, if it was found.
+     * @param <X> the type of the entity.
+     * @return the response.
+     * @throws EntityNotFoundException if the entity was not found.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse) {
+        return wrapOrNotFound(maybeResponse, null);
+    }
+
+    /**
+     * Wraps an entity in a {@code 200 OK} response with the given headers.
+     *
+     * @param maybeResponse the entity, if it was found.
+     * @param header the headers of the response.
+     * @param <X> the type of the entity.
+     * @return the response.
+     * @throws EntityNotFoundException if the entity was not found.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, HttpHeaders header) {
+        return maybeResponse.map(response -> ResponseEntity.ok().headers(header).body(response)).orElseThrow(EntityNotFoundException::new);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the REST layer.
+ */
+package com.demo.web.rest.util;
@@ -0,0 +1,69 @@
+package com.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DatabaseConfigurationTest {
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void shouldApplyPoolAndSocketSettings() {
+        ApplicationProperties.Mongo mongo = applicationProperties.getMongo();
+        mongo.getPool().setMinSize(10);
+        mongo.getPool().setMaxSize(50);
+        mongo.getPool().setMaxWaitTime(Duration.ofSeconds(5));
+        mongo.getPool().setMaxConnectionIdleTime(Duration.ofMinutes(10));
+        mongo.setConnectTimeout(Duration.ofSeconds(3));
+        mongo.setReadTimeout(Duration.ofSeconds(30));
+
+        MongoClientSettings settings = customize(MongoClientSettings.builder().applyConnectionString(uri("maxPoolSize=500")));
+
+        assertThat(settings.getConnectionPoolSettings().getMinSize()).isEqualTo(10);
+        assertThat(settings.getConnectionPoolSettings().getMaxSize()).isEqualTo(50);
+        assertThat(settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(5000);
+        assertThat(settings.getConnectionPoolSettings().getMaxConnectionIdleTime(TimeUnit.MINUTES)).isEqualTo(10);
+        assertThat(settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS)).isEqualTo(3000);
+        assertThat(settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS)).isEqualTo(30000);
+    }
+
+    @Test
+    void shouldOfferCompressorsInConfiguredOrder() {
+        applicationProperties
+            .getMongo()
+            .setCompressors(List.of(ApplicationProperties.Mongo.Compressor.ZSTD, ApplicationProperties.Mongo.Compressor.SNAPPY));
+
+        MongoClientSettings settings = customize(MongoClientSettings.builder());
+
+        assertThat(settings.getCompressorList()).extracting(MongoCompressor::getName).containsExactly("zstd", "snappy");
+    }
+
+    @Test
+    void shouldKeepUriCompressorsWhenNoneConfigured() {
+        MongoClientSettings settings = customize(MongoClientSettings.builder().applyConnectionString(uri("compressors=zlib")));
+
+        assertThat(settings.getCompressorList()).extracting(MongoCompressor::getName).containsExactly("zlib");
+    }
+
+    private MongoClientSettings customize(MongoClientSettings.Builder builder) {
+        new DatabaseConfiguration().mongoClientSettingsCustomizer(applicationProperties).customize(builder);
+        return builder.build();
+    }
+
+    private static ConnectionString uri(String options) {
+        return new ConnectionString("mongodb://localhost:27017/test?" + options);
+    }
+}
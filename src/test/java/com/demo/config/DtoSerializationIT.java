@@ -0,0 +1,126 @@
+package com.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.Benchmark;
+import com.demo.IntegrationTest;
+import com.demo.service.dto.OrderDTO;
+import com.demo.service.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Benchmark of the serialization of 1000-item pages of DTOs by the application's {@link ObjectMapper}, compared to a
+ * mapper with only the Java date and time support, checking that both write the same JSON. The serialization of
+ * instants itself is covered by {@link IsoInstantSerializerTest}.
+ */
+@Benchmark
+@IntegrationTest
+class DtoSerializationIT {
+
+    private static final int PAGE_SIZE = 1_000;
+
+    private static final int WARM_UP_PAGES = 200;
+
+    private static final int PAGES = 1_000;
+
+    private final Logger log = LoggerFactory.getLogger(DtoSerializationIT.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void benchmarkPageSerialization() throws Exception {
+        ObjectMapper baseline = JsonMapper
+            .builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new Jdk8Module())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        List<ProductDTO> products = IntStream.range(0, PAGE_SIZE).mapToObj(DtoSerializationIT::product).collect(Collectors.toList());
+        List<OrderDTO> orders = IntStream.range(0, PAGE_SIZE).mapToObj(DtoSerializationIT::order).collect(Collectors.toList());
+
+        assertThat(objectMapper.writeValueAsString(products)).isEqualTo(baseline.writeValueAsString(products));
+        assertThat(objectMapper.writeValueAsString(orders)).isEqualTo(baseline.writeValueAsString(orders));
+
+        long productsBefore = throughput("products before", baseline.writer(), products);
+        long productsAfter = throughput("products after", objectMapper.writer(), products);
+        long ordersBefore = throughput("orders before", baseline.writer(), orders);
+        long ordersAfter = throughput("orders after", objectMapper.writer(), orders);
+
+        log.info(
+            "Pages of {} DTOs/s: products {} before, {} after; orders {} before, {} after",
+            PAGE_SIZE,
+            productsBefore,
+            productsAfter,
+            ordersBefore,
+            ordersAfter
+        );
+    }
+
+    private long throughput(String mode, ObjectWriter writer, List<?> page) throws Exception {
+        long bytes = 0;
+        for (int i = 0; i < WARM_UP_PAGES; i++) {
+            bytes += writer.writeValueAsBytes(page).length;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGES; i++) {
+            bytes += writer.writeValueAsBytes(page).length;
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long rate = PAGES * 1000L / Math.max(elapsed, 1);
+        log.info("Serialized {} pages of {} {}: {} pages/s ({} bytes)", PAGES, PAGE_SIZE, mode, rate, bytes);
+        return rate;
+    }
+
+    private static ProductDTO product(int i) {
+        ProductDTO product = new ProductDTO();
+        product.setId("product-" + i);
+        product.setName("Product " + i);
+        product.setDescription("Description of product " + i);
+        product.setPrice(BigDecimal.valueOf(1999 + i, 2));
+        product.setStockQuantity(i);
+        product.setCategoryId("category-" + i % 10);
+        product.setCategoryName("Category " + i % 10);
+        product.setActive(i % 2 == 0);
+        product.setCreatedBy("system");
+        product.setCreatedDate(Instant.ofEpochMilli(1_700_000_000_000L + i * 1_000L));
+        product.setLastModifiedBy("system");
+        product.setLastModifiedDate(Instant.ofEpochMilli(1_700_000_000_000L + i * 1_234L));
+        product.setVersion((long) i);
+        return product;
+    }
+
+    private static OrderDTO order(int i) {
+        OrderDTO order = new OrderDTO();
+        order.setId("order-" + i);
+        order.setCustomerId("customer-" + i % 100);
+        order.setCustomerName("Customer " + i % 100);
+        order.setCustomerEmail("customer-" + i % 100 + "@example.com");
+        order.setOrderDate(Instant.ofEpochMilli(1_700_000_000_000L + i * 1_234L));
+        order.setTotalAmount(BigDecimal.valueOf(4999 + i, 2));
+        order.setStatus("PENDING");
+        order.setShippingAddress(i + " Main Street");
+        order.setPaymentMethod("CARD");
+        order.setCreatedBy("system");
+        order.setCreatedDate(Instant.ofEpochMilli(1_700_000_000_000L + i * 1_000L));
+        order.setVersion((long) i);
+        return order;
+    }
+}
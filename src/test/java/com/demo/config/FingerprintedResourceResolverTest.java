@@ -0,0 +1,125 @@
+package com.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+class FingerprintedResourceResolverTest {
+
+    @TempDir
+    Path directory;
+
+    private ResourceResolverChain chain;
+
+    private MockHttpServletRequest request;
+
+    private List<Resource> locations;
+
+    private FingerprintedResourceResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        chain = mock(ResourceResolverChain.class);
+        request = new MockHttpServletRequest();
+        locations = List.of(new FileSystemResource(directory.toString() + "/"));
+        resolver = new FingerprintedResourceResolver();
+    }
+
+    @Test
+    void shouldRecognizeWebpackFingerprints() {
+        assertThat(FingerprintedResourceResolver.isFingerprinted("main.1a2b3c4d.js")).isTrue();
+        assertThat(FingerprintedResourceResolver.isFingerprinted("src_main_webapp_app_home.1a2b3c4d.chunk.js")).isTrue();
+        assertThat(FingerprintedResourceResolver.isFingerprinted("content/main.0123456789abcdef0123.css")).isTrue();
+        assertThat(FingerprintedResourceResolver.isFingerprinted("sw.js")).isFalse();
+        assertThat(FingerprintedResourceResolver.isFingerprinted("i18n/en.json")).isFalse();
+        assertThat(FingerprintedResourceResolver.isFingerprinted("content/images/logo-jhipster.png")).isFalse();
+    }
+
+    @Test
+    void shouldServeFingerprintedResourceFromMemoryAsImmutable() throws Exception {
+        Resource resource = file("main.1a2b3c4d.js", "console.log('main');");
+        when(chain.resolveResource(any(), eq("main.1a2b3c4d.js"), anyList())).thenReturn(resource);
+
+        Resource resolved = resolver.resolveResource(request, "main.1a2b3c4d.js", locations, chain);
+        Files.delete(resource.getFile().toPath());
+
+        assertThat(resolved).isInstanceOf(HttpResource.class);
+        assertThat(((HttpResource) resolved).getResponseHeaders().getCacheControl())
+            .isEqualTo(FingerprintedResourceResolver.IMMUTABLE.getHeaderValue());
+        assertThat(resolved.getFilename()).isEqualTo("main.1a2b3c4d.js");
+        assertThat(resolved.contentLength()).isEqualTo(20);
+        assertThat(StreamUtils.copyToString(resolved.getInputStream(), StandardCharsets.UTF_8)).isEqualTo("console.log('main');");
+    }
+
+    @Test
+    void shouldKeepHeadersOfPrecompressedVariant() throws Exception {
+        file("main.1a2b3c4d.js", "console.log('main');");
+        file("main.1a2b3c4d.js.br", "brotli");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        Resource encoded = new EncodedResourceResolver()
+            .resolveResource(request, "main.1a2b3c4d.js", locations, new PathResolverChain());
+        when(chain.resolveResource(any(), eq("main.1a2b3c4d.js"), anyList())).thenReturn(encoded);
+
+        Resource resolved = resolver.resolveResource(request, "main.1a2b3c4d.js", locations, chain);
+
+        HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(headers.getCacheControl()).isEqualTo(FingerprintedResourceResolver.IMMUTABLE.getHeaderValue());
+        assertThat(StreamUtils.copyToString(resolved.getInputStream(), StandardCharsets.UTF_8)).isEqualTo("brotli");
+    }
+
+    @Test
+    void shouldResolveOtherResourcesUnchanged() throws Exception {
+        Resource resource = file("sw.js", "self.skipWaiting();");
+        when(chain.resolveResource(any(), eq("sw.js"), anyList())).thenReturn(resource);
+
+        assertThat(resolver.resolveResource(request, "sw.js", locations, chain)).isSameAs(resource);
+    }
+
+    private Resource file(String name, String content) throws Exception {
+        return new FileSystemResource(Files.writeString(directory.resolve(name), content));
+    }
+
+    /**
+     * Chain resolving the request path against the first location, as the last resolver of a chain does.
+     */
+    private static class PathResolverChain implements ResourceResolverChain {
+
+        @Override
+        public Resource resolveResource(HttpServletRequest request, String requestPath, List<? extends Resource> locations) {
+            try {
+                Resource resource = locations.get(0).createRelative(requestPath);
+                return resource.exists() ? resource : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String resolveUrlPath(String resourcePath, List<? extends Resource> locations) {
+            return resourcePath;
+        }
+    }
+}
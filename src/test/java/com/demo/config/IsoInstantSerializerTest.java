@@ -0,0 +1,75 @@
+package com.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IsoInstantSerializerTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper =
+            JsonMapper
+                .builder()
+                .addModule(new JacksonConfiguration().javaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Test
+    void shouldWriteInstantsLikeIsoInstant() throws Exception {
+        List<Instant> instants = List.of(
+            Instant.EPOCH,
+            Instant.parse("1969-12-31T23:59:59.999Z"),
+            Instant.parse("2024-02-29T12:34:56Z"),
+            Instant.parse("2024-02-29T12:34:56.100Z"),
+            Instant.parse("2024-02-29T12:34:56.123Z"),
+            Instant.parse("2024-02-29T12:34:56.000100Z"),
+            Instant.parse("2024-02-29T12:34:56.123456Z"),
+            Instant.parse("2024-02-29T12:34:56.000000001Z"),
+            Instant.parse("2024-02-29T12:34:56.123456789Z"),
+            Instant.parse("0000-01-01T00:00:00Z"),
+            Instant.parse("9999-12-31T23:59:59.999999999Z"),
+            Instant.parse("+10000-01-01T00:00:00Z"),
+            Instant.parse("-0001-12-31T23:59:59Z")
+        );
+
+        for (Instant instant : instants) {
+            assertThat(objectMapper.writeValueAsString(instant)).isEqualTo("\"" + DateTimeFormatter.ISO_INSTANT.format(instant) + "\"");
+        }
+    }
+
+    @Test
+    void shouldWriteTimestampsWhenEnabled() throws Exception {
+        Instant instant = Instant.parse("2024-02-29T12:34:56.123Z");
+
+        assertThat(objectMapper.writer().with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(instant))
+            .isEqualTo("1709210096.123000000");
+    }
+
+    @Test
+    void shouldHonorJsonFormatPattern() throws Exception {
+        assertThat(objectMapper.writeValueAsString(new Formatted(Instant.parse("2024-02-29T12:34:56Z"))))
+            .isEqualTo("{\"at\":\"2024-02-29\"}");
+    }
+
+    static class Formatted {
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd", timezone = "UTC")
+        public final Instant at;
+
+        Formatted(Instant at) {
+            this.at = at;
+        }
+    }
+}
@@ -55,6 +55,7 @@ class StaticResourcesWebConfigurerTest {
         verify(staticResourcesWebConfiguration, times(1)).getCacheControl();
         verify(resourceHandlerRegistration, times(1)).setCacheControl(ccExpected);
         verify(resourceHandlerRegistration, times(1)).addResourceLocations(RESOURCE_LOCATIONS);
+        verify(resourceHandlerRegistration, times(1)).resourceChain(true);
     }
 
     @Test
@@ -0,0 +1,91 @@
+package com.demo.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link DecimalMoneyFieldsMigration}.
+ */
+@IntegrationTest
+class DecimalMoneyFieldsMigrationIT {
+
+    /**
+     * More documents than one batch of the migration.
+     */
+    private static final int LEGACY_PRODUCTS = 2500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void init() {
+        products().deleteMany(new Document());
+        orders().deleteMany(new Document());
+    }
+
+    @Test
+    void assertThatStringMoneyFieldsAreConverted() {
+        products().insertOne(new Document("_id", "product").append("price", "12.50"));
+        orders().insertOne(new Document("_id", "order").append("total_amount", "100"));
+
+        new DecimalMoneyFieldsMigration(mongoTemplate).changeSet();
+
+        assertThat(products().find(Filters.eq("_id", "product")).first().get("price")).isEqualTo(decimal("12.50"));
+        assertThat(orders().find(Filters.eq("_id", "order")).first().get("total_amount")).isEqualTo(decimal("100"));
+    }
+
+    @Test
+    void assertThatInterruptedRunIsResumed() {
+        List<Document> legacy = new ArrayList<>();
+        for (int i = 0; i < LEGACY_PRODUCTS; i++) {
+            legacy.add(new Document("_id", "product-" + i).append("price", i + ".25"));
+        }
+        products().insertMany(legacy);
+        // the state a run stopped after its first batch leaves behind
+        products()
+            .updateMany(Filters.in("_id", "product-0", "product-1"), List.of(Updates.set("price", new Document("$toDecimal", "$price"))));
+
+        new DecimalMoneyFieldsMigration(mongoTemplate).changeSet();
+
+        assertThat(products().countDocuments(Filters.type("price", "string"))).isZero();
+        assertThat(products().countDocuments(Filters.type("price", "decimal"))).isEqualTo(LEGACY_PRODUCTS);
+        assertThat(products().find(Filters.eq("_id", "product-0")).first().get("price")).isEqualTo(decimal("0.25"));
+        assertThat(products().find(Filters.eq("_id", "product-2499")).first().get("price")).isEqualTo(decimal("2499.25"));
+    }
+
+    @Test
+    void assertThatRunningAgainChangesNothing() {
+        products().insertOne(new Document("_id", "product").append("price", "9"));
+        DecimalMoneyFieldsMigration migration = new DecimalMoneyFieldsMigration(mongoTemplate);
+
+        migration.changeSet();
+        migration.changeSet();
+
+        assertThat(products().find(Filters.eq("_id", "product")).first().get("price")).isEqualTo(decimal("9"));
+    }
+
+    private MongoCollection<Document> products() {
+        return mongoTemplate.getCollection("product");
+    }
+
+    private MongoCollection<Document> orders() {
+        return mongoTemplate.getCollection("order");
+    }
+
+    private static Decimal128 decimal(String value) {
+        return new Decimal128(new BigDecimal(value));
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Category;
+import com.demo.repository.CategoryRepository;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link EntityVersionMigration}.
+ */
+@IntegrationTest
+class EntityVersionMigrationIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    public void init() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatUnversionedDocumentsStartAtVersionZero() {
+        mongoTemplate.getCollection("category").insertOne(new Document("_id", "unversioned").append("name", "Legacy"));
+        mongoTemplate.getCollection("category").insertOne(new Document("_id", "versioned").append("name", "Current").append("version", 4L));
+
+        new EntityVersionMigration(mongoTemplate).changeSet();
+
+        assertThat(versionOf("unversioned")).isEqualTo(0L);
+        assertThat(versionOf("versioned")).isEqualTo(4L);
+    }
+
+    @Test
+    void assertThatMigratedDocumentsCanBeUpdated() {
+        mongoTemplate.getCollection("category").insertOne(new Document("_id", "unversioned").append("name", "Legacy"));
+
+        new EntityVersionMigration(mongoTemplate).changeSet();
+        Category category = categoryRepository.findById("unversioned").orElseThrow();
+        category.setName("Migrated");
+        categoryRepository.save(category);
+
+        assertThat(categoryRepository.count()).isEqualTo(1);
+        assertThat(versionOf("unversioned")).isEqualTo(1L);
+    }
+
+    private Object versionOf(String id) {
+        return mongoTemplate.getCollection("category").find(Filters.eq("_id", id)).first().get("version");
+    }
+}
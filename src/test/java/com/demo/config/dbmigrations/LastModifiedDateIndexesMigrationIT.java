@@ -0,0 +1,35 @@
+package com.demo.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link LastModifiedDateIndexesMigration}.
+ */
+@IntegrationTest
+class LastModifiedDateIndexesMigrationIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void assertThatLastModifiedDateIsIndexed() {
+        new LastModifiedDateIndexesMigration(mongoTemplate).changeSet();
+
+        assertThat(indexKeys("product")).contains(new Document("last_modified_date", -1));
+        assertThat(indexKeys("category")).contains(new Document("last_modified_date", -1));
+    }
+
+    private List<Document> indexKeys(String collection) {
+        List<Document> keys = new ArrayList<>();
+        mongoTemplate.getCollection(collection).listIndexes().forEach(index -> keys.add(index.get("key", Document.class)));
+        return keys;
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.MailOutboxMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link MailOutboxIndexesMigration}.
+ */
+@IntegrationTest
+class MailOutboxIndexesMigrationIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void assertThatOnlyFailedEmailsExpire() {
+        new MailOutboxIndexesMigration(mongoTemplate).changeSet();
+
+        List<Document> indexes = new ArrayList<>();
+        mongoTemplate.getCollection("mail_outbox").listIndexes().forEach(indexes::add);
+        assertThat(indexes)
+            .filteredOn(index -> new Document("created_date", 1).equals(index.get("key")))
+            .singleElement()
+            .satisfies(index -> {
+                assertThat(index.get("expireAfterSeconds", Number.class).longValue())
+                    .isEqualTo(TimeUnit.DAYS.toSeconds(MailOutboxMessage.FAILED_RETENTION_DAYS));
+                assertThat(index.get("partialFilterExpression")).isEqualTo(new Document("status", MailOutboxMessage.FAILED));
+            });
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Customer;
+import com.demo.repository.CustomerRepository;
+import com.demo.repository.OrderRepository;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link OrderCustomerSnapshotMigration}.
+ */
+@IntegrationTest
+class OrderCustomerSnapshotMigrationIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    public void init() {
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatCustomerSnapshotIsBackfilled() {
+        Customer john = new Customer();
+        john.setFirstName("John");
+        john.setLastName("Doe");
+        john.setEmail("john@localhost");
+        john = customerRepository.save(john);
+        mongoTemplate.getCollection("order").insertOne(new Document("_id", "johns-order").append("customer_id", john.getId()));
+        mongoTemplate.getCollection("order").insertOne(new Document("_id", "orphan").append("customer_id", "deleted-customer"));
+
+        new OrderCustomerSnapshotMigration(mongoTemplate).changeSet();
+
+        Document johnsOrder = order("johns-order");
+        assertThat(johnsOrder.getString("customer_name")).isEqualTo("John Doe");
+        assertThat(johnsOrder.getString("customer_email")).isEqualTo("john@localhost");
+        Document orphan = order("orphan");
+        assertThat(orphan.containsKey("customer_name")).isFalse();
+        assertThat(orphan.containsKey("customer_email")).isFalse();
+    }
+
+    private Document order(String id) {
+        return mongoTemplate.getCollection("order").find(Filters.eq("_id", id)).first();
+    }
+}
@@ -0,0 +1,56 @@
+package com.demo.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Category;
+import com.demo.repository.CategoryRepository;
+import com.demo.repository.ProductRepository;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link ProductCategoryNameMigration}.
+ */
+@IntegrationTest
+class ProductCategoryNameMigrationIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatCategoryNameIsBackfilled() {
+        Category books = new Category();
+        books.setName("Books");
+        books = categoryRepository.save(books);
+        mongoTemplate.getCollection("product").insertOne(new Document("_id", "novel").append("category_id", books.getId()));
+        mongoTemplate.getCollection("product").insertOne(new Document("_id", "orphan").append("category_id", "deleted-category"));
+        mongoTemplate.getCollection("product").insertOne(new Document("_id", "uncategorized"));
+
+        new ProductCategoryNameMigration(mongoTemplate).changeSet();
+
+        assertThat(product("novel").getString("category_name")).isEqualTo("Books");
+        assertThat(product("orphan").containsKey("category_name")).isFalse();
+        assertThat(product("uncategorized").containsKey("category_name")).isFalse();
+    }
+
+    private Document product(String id) {
+        return mongoTemplate.getCollection("product").find(Filters.eq("_id", id)).first();
+    }
+}
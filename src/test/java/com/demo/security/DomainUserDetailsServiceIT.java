@@ -4,16 +4,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import com.demo.IntegrationTest;
+import com.demo.domain.Authority;
 import com.demo.domain.User;
 import com.demo.repository.UserRepository;
+import com.demo.service.core.UserService;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 /**
  * Integrations tests for {@link DomainUserDetailsService}.
@@ -35,9 +41,18 @@ class DomainUserDetailsServiceIT {
     @Qualifier("userDetailsService")
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     public void init() {
         userRepository.deleteAll();
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+        cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).clear();
 
         User userOne = new User();
         userOne.setLogin(USER_ONE_LOGIN);
@@ -110,4 +125,33 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatUserDetailsAreCachedUntilUserCachesAreCleared() {
+        UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN.toUpperCase(Locale.ENGLISH))).isSameAs(userDetails);
+
+        userService.deleteUser(USER_ONE_LOGIN);
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN));
+    }
+
+    @Test
+    void assertThatAuthoritiesAreShared() {
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        for (String login : List.of(USER_ONE_LOGIN, USER_TWO_LOGIN)) {
+            User user = userRepository.findOneByLogin(login).orElseThrow();
+            user.setAuthorities(Set.of(authority));
+            userRepository.save(user);
+        }
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+
+        UserDetails userOne = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        UserDetails userTwo = domainUserDetailsService.loadUserByUsername(USER_TWO_LOGIN);
+
+        assertThat(userOne.getAuthorities()).hasSize(1).hasSameSizeAs(userTwo.getAuthorities());
+        assertThat(userOne.getAuthorities()).zipSatisfy(userTwo.getAuthorities(), (one, two) -> assertThat(one).isSameAs(two));
+    }
 }
@@ -0,0 +1,144 @@
+package com.demo.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.config.ApplicationProperties;
+import com.demo.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.ModelAndView;
+
+class RateLimitFilterTest {
+
+    private static final String LIMITED_URI = "/api/products/statistics";
+
+    private final List<Exception> resolved = new ArrayList<>();
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.RateLimit.Route route = new ApplicationProperties.RateLimit.Route();
+        route.setPattern("/api/*/statistics");
+        route.setCapacity(2);
+        route.setPeriod(Duration.ofHours(1));
+        ApplicationProperties.RateLimit properties = new ApplicationProperties.RateLimit();
+        properties.setMaxBuckets(2);
+        properties.setRoutes(List.of(route));
+
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter =
+            new RateLimitFilter(
+                properties,
+                (request, response, handler, ex) -> {
+                    resolved.add(ex);
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    return new ModelAndView();
+                },
+                meterRegistry
+            );
+        SecurityContextHolder.getContext().setAuthentication(null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRequestsWithinCapacityPass() throws Exception {
+        assertThat(filter(LIMITED_URI, "10.0.0.1")).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter(LIMITED_URI, "10.0.0.1")).isEqualTo(HttpStatus.OK.value());
+        assertThat(resolved).isEmpty();
+    }
+
+    @Test
+    void testRequestsOverCapacityAreRejected() throws Exception {
+        filter(LIMITED_URI, "10.0.0.1");
+        filter(LIMITED_URI, "10.0.0.1");
+
+        assertThat(filter(LIMITED_URI, "10.0.0.1")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(resolved).singleElement().isInstanceOf(RateLimitExceededException.class);
+        Duration retryAfter = ((RateLimitExceededException) resolved.get(0)).getRetryAfter();
+        assertThat(retryAfter).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(30));
+        assertThat(
+            meterRegistry
+                .get(RateLimitFilter.REJECTED_METER_NAME)
+                .tag("route", "/api/*/statistics")
+                .tag("client", "ip")
+                .counter()
+                .count()
+        )
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testClientsHaveSeparateBuckets() throws Exception {
+        filter(LIMITED_URI, "10.0.0.1");
+        filter(LIMITED_URI, "10.0.0.1");
+
+        assertThat(filter(LIMITED_URI, "10.0.0.2")).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testAuthenticatedUserIsLimitedByLogin() throws Exception {
+        SecurityContextHolder
+            .getContext()
+            .setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                    "test-user",
+                    "test-password",
+                    Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                )
+            );
+        filter(LIMITED_URI, "10.0.0.1");
+        filter(LIMITED_URI, "10.0.0.2");
+
+        assertThat(filter(LIMITED_URI, "10.0.0.3")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(meterRegistry.get(RateLimitFilter.REJECTED_METER_NAME).tag("client", "user").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUnlimitedRoutesAreNotCounted() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(filter("/api/products", "10.0.0.1")).isEqualTo(HttpStatus.OK.value());
+        }
+        assertThat(resolved).isEmpty();
+    }
+
+    @Test
+    void testClientsBeyondMaxBucketsShareOverflowBucket() throws Exception {
+        filter(LIMITED_URI, "10.0.0.1");
+        filter(LIMITED_URI, "10.0.0.2");
+
+        assertThat(filter(LIMITED_URI, "10.0.0.3")).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter(LIMITED_URI, "10.0.0.4")).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter(LIMITED_URI, "10.0.0.5")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(meterRegistry.get(RateLimitFilter.BUCKETS_METER_NAME).gauge().value()).isEqualTo(2);
+    }
+
+    private int filter(String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setServletPath(uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,105 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.Benchmark;
+import com.demo.IntegrationTest;
+import com.demo.config.Constants;
+import com.demo.domain.MailOutboxMessage;
+import com.demo.domain.User;
+import com.demo.repository.MailOutboxMessageRepository;
+import com.demo.service.core.MailService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Benchmark of the rendering and queueing of 10k activation emails, one by one and through the batch API of
+ * {@link MailService}. The batch API itself is covered by {@link MailServiceIT}.
+ */
+@Benchmark
+@IntegrationTest
+class BulkActivationEmailIT {
+
+    private static final int EMAILS = 10_000;
+
+    private static final int WARM_UP_EMAILS = 500;
+
+    private final Logger log = LoggerFactory.getLogger(BulkActivationEmailIT.class);
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void init() {
+        mailOutboxMessageRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        mailOutboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatBatchRenderingMatchesSingleRendering() {
+        List<User> users = users(EMAILS);
+
+        long single = queue("one by one", users, batch -> batch.forEach(mailService::sendActivationEmail));
+        MailOutboxMessage singleMessage = queuedTo(users.get(EMAILS - 1));
+        mailOutboxMessageRepository.deleteAll();
+        long batched = queue("batched", users, mailService::sendActivationEmails);
+        MailOutboxMessage batchedMessage = queuedTo(users.get(EMAILS - 1));
+
+        log.info("10k activation emails queued in {} ms one by one, {} ms batched", single, batched);
+        assertThat(batchedMessage.getSubject()).isEqualTo(singleMessage.getSubject());
+        assertThat(batchedMessage.getContent()).isEqualTo(singleMessage.getContent()).contains(users.get(EMAILS - 1).getActivationKey());
+    }
+
+    private long queue(String mode, List<User> users, Consumer<List<User>> sender) {
+        sender.accept(users(WARM_UP_EMAILS));
+        mailOutboxMessageRepository.deleteAll();
+
+        long start = System.nanoTime();
+        sender.accept(users);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        log.info("Queued {} activation emails {}: {} emails/s", EMAILS, mode, EMAILS * 1000L / Math.max(elapsed, 1));
+        assertThat(mailOutboxMessageRepository.count()).isEqualTo(EMAILS);
+        return elapsed;
+    }
+
+    private MailOutboxMessage queuedTo(User user) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("to").is(user.getEmail())), MailOutboxMessage.class);
+    }
+
+    private static List<User> users(int count) {
+        return IntStream
+            .range(0, count)
+            .mapToObj(i -> {
+                User user = new User();
+                user.setLogin("bulk-" + i);
+                user.setEmail("bulk-" + i + "@example.com");
+                user.setLangKey(Constants.DEFAULT_LANGUAGE);
+                user.setActivationKey("activation-key-" + i);
+                return user;
+            })
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,224 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Category;
+import com.demo.domain.Product;
+import com.demo.repository.CategoryRepository;
+import com.demo.repository.ProductRepository;
+import com.demo.service.core.CategoryService;
+import com.demo.service.core.ProductService;
+import com.demo.service.dto.CategoryDTO;
+import com.demo.service.dto.ProductDTO;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Integration tests for {@link CategoryService}.
+ */
+@IntegrationTest
+class CategoryServiceIT {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Category books;
+
+    private Category games;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        cacheManager.getCache(CategoryService.CATEGORY_STATISTICS_CACHE).clear();
+        books = createCategory("Books");
+        games = createCategory("Games");
+    }
+
+    @Test
+    void assertThatRenameIsPropagatedToProducts() {
+        Product novel = createProduct("novel", books);
+        Product chess = createProduct("chess", games);
+        CategoryDTO renamed = new CategoryDTO(books);
+        renamed.setName("Printed books");
+
+        categoryService.update(renamed);
+
+        Product updatedNovel = productRepository.findById(novel.getId()).orElseThrow();
+        assertThat(updatedNovel.getCategoryName()).isEqualTo("Printed books");
+        assertThat(updatedNovel.getVersion()).isEqualTo(novel.getVersion() + 1);
+        Product untouchedChess = productRepository.findById(chess.getId()).orElseThrow();
+        assertThat(untouchedChess.getCategoryName()).isEqualTo("Games");
+        assertThat(untouchedChess.getVersion()).isEqualTo(chess.getVersion());
+    }
+
+    @Test
+    void assertThatPartialRenameIsPropagatedToProducts() {
+        Product novel = createProduct("novel", books);
+        CategoryDTO renamed = new CategoryDTO();
+        renamed.setId(books.getId());
+        renamed.setName("Printed books");
+
+        categoryService.partialUpdate(renamed);
+
+        assertThat(productRepository.findById(novel.getId()).orElseThrow().getCategoryName()).isEqualTo("Printed books");
+    }
+
+    @Test
+    void assertThatDeleteClearsCategoryNameOfProducts() {
+        Product novel = createProduct("novel", books);
+        Product chess = createProduct("chess", games);
+
+        categoryService.delete(books.getId());
+
+        assertThat(productRepository.findById(novel.getId()).orElseThrow().getCategoryName()).isNull();
+        assertThat(productRepository.findById(chess.getId()).orElseThrow().getCategoryName()).isEqualTo("Games");
+    }
+
+    @Test
+    void assertThatDeleteManyClearsCategoryNameOfProducts() {
+        Category toys = createCategory("Toys");
+        Product novel = createProduct("novel", books);
+        Product chess = createProduct("chess", games);
+        Product puzzle = createProduct("puzzle", toys);
+
+        categoryService.deleteMany(List.of(books.getId(), games.getId()));
+
+        assertThat(productRepository.findById(novel.getId()).orElseThrow().getCategoryName()).isNull();
+        assertThat(productRepository.findById(chess.getId()).orElseThrow().getCategoryName()).isNull();
+        assertThat(productRepository.findById(puzzle.getId()).orElseThrow().getCategoryName()).isEqualTo("Toys");
+    }
+
+    @Test
+    void assertThatStatisticsCountCategoriesAndTheirProducts() {
+        books.setImageUrl("https://localhost/books.png");
+        books = categoryRepository.save(books);
+        games.setActive(false);
+        games.setImageUrl(" ");
+        games = categoryRepository.save(games);
+        Category toys = createCategory("Toys");
+        createProduct("novel", books, true, 3);
+        createProduct("poems", books, false, 4);
+        createProduct("chess", games, true, 5);
+        createProduct("uncategorized", null, true, 100);
+
+        Map<String, Object> stats = categoryService.getStatistics();
+
+        assertThat(stats)
+            .containsEntry("totalCategories", 3L)
+            .containsEntry("activeCategories", 2L)
+            .containsEntry("inactiveCategories", 1L)
+            .containsEntry("categoriesWithImage", 1L);
+        assertThat(productsByCategory(stats))
+            .containsExactlyInAnyOrder(
+                categoryStatistics(books, 2L, 1L, 7L),
+                categoryStatistics(games, 1L, 1L, 5L),
+                categoryStatistics(toys, 0L, 0L, 0L)
+            );
+    }
+
+    @Test
+    void assertThatCachedStatisticsCannotBeModified() {
+        createProduct("novel", books, true, 3);
+
+        Map<String, Object> stats = categoryService.getStatistics();
+
+        assertThatThrownBy(() -> stats.put("totalCategories", 0L)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> productsByCategory(stats).clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> productsByCategory(stats).get(0).put("productCount", 0L))
+            .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(categoryService.getStatistics()).isEqualTo(stats);
+    }
+
+    @Test
+    void assertThatStatisticsAreCachedUntilCategoryWrite() {
+        assertThat(categoryService.getStatistics()).containsEntry("totalCategories", 2L);
+        // bypasses the service, so the cached statistics stay as they were
+        createCategory("Toys");
+        assertThat(categoryService.getStatistics()).containsEntry("totalCategories", 2L);
+
+        CategoryDTO puzzles = new CategoryDTO();
+        puzzles.setName("Puzzles");
+        categoryService.save(puzzles);
+
+        assertThat(categoryService.getStatistics()).containsEntry("totalCategories", 4L);
+    }
+
+    @Test
+    void assertThatStatisticsAreEvictedOnProductWrite() {
+        assertThat(productsByCategory(categoryService.getStatistics())).contains(categoryStatistics(books, 0L, 0L, 0L));
+
+        ProductDTO novel = new ProductDTO();
+        novel.setName("novel");
+        novel.setPrice(BigDecimal.TEN);
+        novel.setStockQuantity(3);
+        novel.setCategoryId(books.getId());
+        ProductDTO saved = productService.save(novel);
+        assertThat(productsByCategory(categoryService.getStatistics())).contains(categoryStatistics(books, 1L, 1L, 3L));
+
+        productService.delete(saved.getId());
+        assertThat(productsByCategory(categoryService.getStatistics())).contains(categoryStatistics(books, 0L, 0L, 0L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> productsByCategory(Map<String, Object> stats) {
+        return (List<Map<String, Object>>) stats.get("productsByCategory");
+    }
+
+    private static Map<String, Object> categoryStatistics(Category category, long productCount, long activeProductCount, long totalStock) {
+        return Map.of(
+            "categoryId",
+            category.getId(),
+            "categoryName",
+            category.getName(),
+            "productCount",
+            productCount,
+            "activeProductCount",
+            activeProductCount,
+            "totalStock",
+            totalStock
+        );
+    }
+
+    private Category createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+
+    private Product createProduct(String name, Category category) {
+        return createProduct(name, category, true, 1);
+    }
+
+    private Product createProduct(String name, Category category, boolean active, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(stock);
+        product.setActive(active);
+        if (category != null) {
+            product.setCategoryId(category.getId());
+            product.setCategoryName(category.getName());
+        }
+        return productRepository.save(product);
+    }
+}
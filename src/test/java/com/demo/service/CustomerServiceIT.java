@@ -0,0 +1,158 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Customer;
+import com.demo.domain.Order;
+import com.demo.repository.CustomerRepository;
+import com.demo.repository.OrderRepository;
+import com.demo.service.core.CustomerService;
+import com.demo.service.dto.CustomerDTO;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link CustomerService}.
+ */
+@IntegrationTest
+class CustomerServiceIT {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @BeforeEach
+    public void init() {
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatUpdateRewritesSnapshotOfOwnOrders() {
+        Customer john = createCustomer("John", "Doe", "john@localhost", null, null, null);
+        Customer jane = createCustomer("Jane", "Roe", "jane@localhost", null, null, null);
+        Order johnsOrder = createOrder(john);
+        Order janesOrder = createOrder(jane);
+        CustomerDTO renamed = new CustomerDTO(john);
+        renamed.setLastName("Smith");
+        renamed.setEmail("john.smith@localhost");
+
+        customerService.update(renamed);
+
+        Order updated = orderRepository.findById(johnsOrder.getId()).orElseThrow();
+        assertThat(updated.getCustomerName()).isEqualTo("John Smith");
+        assertThat(updated.getCustomerEmail()).isEqualTo("john.smith@localhost");
+        assertThat(updated.getVersion()).isEqualTo(johnsOrder.getVersion() + 1);
+        Order untouched = orderRepository.findById(janesOrder.getId()).orElseThrow();
+        assertThat(untouched.getCustomerName()).isEqualTo("Jane Roe");
+        assertThat(untouched.getCustomerEmail()).isEqualTo("jane@localhost");
+        assertThat(untouched.getVersion()).isEqualTo(janesOrder.getVersion());
+    }
+
+    @Test
+    void assertThatPartialUpdateRewritesSnapshotOfOwnOrders() {
+        Customer john = createCustomer("John", "Doe", "john@localhost", null, null, null);
+        Customer jane = createCustomer("Jane", "Roe", "jane@localhost", null, null, null);
+        Order johnsOrder = createOrder(john);
+        Order janesOrder = createOrder(jane);
+        CustomerDTO renamed = new CustomerDTO();
+        renamed.setId(john.getId());
+        renamed.setFirstName("Johnny");
+
+        customerService.partialUpdate(renamed);
+
+        Order updated = orderRepository.findById(johnsOrder.getId()).orElseThrow();
+        assertThat(updated.getCustomerName()).isEqualTo("Johnny Doe");
+        assertThat(updated.getCustomerEmail()).isEqualTo("john@localhost");
+        assertThat(orderRepository.findById(janesOrder.getId()).orElseThrow().getCustomerName()).isEqualTo("Jane Roe");
+    }
+
+    @Test
+    void assertThatUnrelatedUpdateLeavesOrdersUntouched() {
+        Customer john = createCustomer("John", "Doe", "john@localhost", null, null, null);
+        Order johnsOrder = createOrder(john);
+        CustomerDTO moved = new CustomerDTO(john);
+        moved.setCity("Paris");
+
+        customerService.update(moved);
+
+        assertThat(orderRepository.findById(johnsOrder.getId()).orElseThrow().getVersion()).isEqualTo(johnsOrder.getVersion());
+    }
+
+    @Test
+    void assertThatStatisticsCountAndBreakDownCustomers() {
+        createCustomer("John", "Paris", "0601020304", "Paris", "France", true);
+        createCustomer("Jane", "Paris", "   ", "Paris", "France", true);
+        createCustomer("Max", "Berlin", "", "Berlin", "Germany", false);
+        createCustomer("Ana", "Madrid", null, "", "Spain", true);
+        createCustomer("Li", "Lyon", "+33 7 00 00 00 00", "Lyon", "France", false);
+        createCustomer("Bo", "Nowhere", null, " ", null, true);
+
+        Map<String, Object> stats = customerService.getStatistics();
+
+        assertThat(stats)
+            .containsEntry("totalCustomers", 6L)
+            .containsEntry("activeCustomers", 4L)
+            .containsEntry("inactiveCustomers", 2L)
+            .containsEntry("customersWithPhone", 2L)
+            .containsEntry("uniqueCities", 3L);
+        assertThat(breakdown(stats, "customersByCity")).containsOnly(entry("Paris", 2L), entry("Berlin", 1L), entry("Lyon", 1L));
+        assertThat(breakdown(stats, "customersByCity").keySet()).first().isEqualTo("Paris");
+        assertThat(breakdown(stats, "customersByCountry")).containsOnly(entry("France", 3L), entry("Germany", 1L), entry("Spain", 1L));
+        assertThat(breakdown(stats, "customersByCountry").keySet()).first().isEqualTo("France");
+    }
+
+    @Test
+    void assertThatStatisticsOfNoCustomersAreEmpty() {
+        Map<String, Object> stats = customerService.getStatistics();
+
+        assertThat(stats)
+            .containsEntry("totalCustomers", 0L)
+            .containsEntry("activeCustomers", 0L)
+            .containsEntry("customersWithPhone", 0L)
+            .containsEntry("uniqueCities", 0L);
+        assertThat(breakdown(stats, "customersByCity")).isEmpty();
+        assertThat(breakdown(stats, "customersByCountry")).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> breakdown(Map<String, Object> stats, String key) {
+        return (Map<String, Long>) stats.get(key);
+    }
+
+    private void createCustomer(String firstName, String lastName, String phone, String city, String country, boolean active) {
+        Customer customer = createCustomer(firstName, lastName, firstName.toLowerCase() + "@localhost", phone, city, country);
+        customer.setActive(active);
+        customerRepository.save(customer);
+    }
+
+    private Customer createCustomer(String firstName, String lastName, String email, String phone, String city, String country) {
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        customer.setEmail(email);
+        customer.setPhone(phone);
+        customer.setCity(city);
+        customer.setCountry(country);
+        return customerRepository.save(customer);
+    }
+
+    private Order createOrder(Customer customer) {
+        Order order = new Order();
+        order.setCustomerId(customer.getId());
+        order.setCustomerName(customer.getFullName());
+        order.setCustomerEmail(customer.getEmail());
+        order.setTotalAmount(BigDecimal.TEN);
+        return orderRepository.save(order);
+    }
+}
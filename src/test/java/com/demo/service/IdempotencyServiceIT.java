@@ -0,0 +1,176 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.demo.IntegrationTest;
+import com.demo.config.ApplicationProperties;
+import com.demo.domain.IdempotencyRecord;
+import com.demo.repository.IdempotencyRecordRepository;
+import com.demo.service.core.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Integration tests for {@link IdempotencyService}.
+ */
+@IntegrationTest
+class IdempotencyServiceIT {
+
+    private static final String SCOPE = "test";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    public void init() {
+        idempotencyRecordRepository.deleteAll();
+        cacheManager.getCache(IdempotencyService.IDEMPOTENT_RESPONSES_CACHE).clear();
+    }
+
+    @Test
+    void assertThatRetryIsReplayed() {
+        ResponseEntity<String> first = idempotencyService.execute(SCOPE, "replayed", String.class, () -> created("done"));
+        ResponseEntity<String> retry = idempotencyService.execute(SCOPE, "replayed", String.class, () -> created("again"));
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(first.getBody()).isEqualTo("done");
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo("done");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void assertThatConcurrentDuplicateWaitsForRunningRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() ->
+                idempotencyService.execute(SCOPE, "concurrent", String.class, () -> createdOnRelease("done", started, release))
+            );
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<ResponseEntity<String>> duplicate = executor.submit(() ->
+                idempotencyService.execute(SCOPE, "concurrent", String.class, () -> created("again"))
+            );
+            // lets the duplicate find the running request before it completes
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).getBody()).isEqualTo("done");
+            ResponseEntity<String> waited = duplicate.get(10, TimeUnit.SECONDS);
+            assertThat(waited.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(waited.getBody()).isEqualTo("done");
+            assertThat(executions.get()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void assertThatDuplicateOnAnotherInstanceIsRejectedWhileInProgress() throws Exception {
+        // a second service shares the database and cache but not the requests running on this instance
+        IdempotencyService otherInstance = new IdempotencyService(
+            idempotencyRecordRepository,
+            objectMapper,
+            cacheManager,
+            applicationProperties
+        );
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> running = executor.submit(() ->
+                idempotencyService.execute(SCOPE, "in-progress", String.class, () -> createdOnRelease("done", started, release))
+            );
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> otherInstance.execute(SCOPE, "in-progress", String.class, () -> created("again")))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+
+            release.countDown();
+            assertThat(running.get(10, TimeUnit.SECONDS).getBody()).isEqualTo("done");
+            cacheManager.getCache(IdempotencyService.IDEMPOTENT_RESPONSES_CACHE).clear();
+            assertThat(otherInstance.execute(SCOPE, "in-progress", String.class, () -> created("again")).getBody()).isEqualTo("done");
+            assertThat(executions.get()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void assertThatRetryIsRejectedWhenResponseCouldNotBeStored() {
+        ResponseEntity<Unserializable> first = idempotencyService.execute(
+            SCOPE,
+            "unstored",
+            Unserializable.class,
+            () -> created(new Unserializable())
+        );
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        IdempotencyRecord record = idempotencyRecordRepository.findAll().get(0);
+        assertThat(record.isCompleted()).isTrue();
+        assertThat(record.isResponseUnavailable()).isTrue();
+
+        // also once the local cache is gone, e.g. on another instance
+        cacheManager.getCache(IdempotencyService.IDEMPOTENT_RESPONSES_CACHE).clear();
+        assertThatThrownBy(() ->
+                idempotencyService.execute(SCOPE, "unstored", Unserializable.class, () -> created(new Unserializable()))
+            )
+            .isInstanceOf(IdempotencyResponseUnavailableException.class);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    private <T> ResponseEntity<T> created(T body) {
+        executions.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    private <T> ResponseEntity<T> createdOnRelease(T body, CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return created(body);
+    }
+
+    /**
+     * A response body that Jackson fails to write.
+     */
+    public static class Unserializable {
+
+        public String getValue() {
+            throw new IllegalStateException("not serializable");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.service.core.ProductService;
+import com.demo.service.lock.JobLock;
+import com.demo.service.lock.JobLockService;
+import com.demo.service.lock.SchedulerLockAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Integration tests for {@link JobLockService} and {@link SchedulerLockAspect}.
+ */
+@IntegrationTest
+class JobLockServiceIT {
+
+    private static final String JOB = "test-job";
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        mongoTemplate.dropCollection(JobLockService.COLLECTION);
+    }
+
+    @Test
+    void assertThatHeldLockCannotBeAcquired() {
+        Optional<JobLock> lock = jobLockService.tryLock(JOB, Duration.ofMinutes(1));
+
+        assertThat(lock).isPresent();
+        assertThat(jobLockService.isHeld(lock.get())).isTrue();
+        assertThat(jobLockService.tryLock(JOB, Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void assertThatReleasedLockIsAcquiredWithNewToken() {
+        JobLock first = jobLockService.tryLock(JOB, Duration.ofMinutes(1)).orElseThrow();
+        assertThat(jobLockService.unlock(first, Duration.ZERO)).isTrue();
+
+        JobLock second = jobLockService.tryLock(JOB, Duration.ofMinutes(1)).orElseThrow();
+
+        assertThat(second.getToken()).isEqualTo(first.getToken() + 1);
+        assertThat(jobLockService.isHeld(first)).isFalse();
+        assertThat(jobLockService.isHeld(second)).isTrue();
+    }
+
+    @Test
+    void assertThatExpiredHolderCannotReleaseLockTakenOver() throws Exception {
+        JobLock expired = jobLockService.tryLock(JOB, Duration.ofMillis(10)).orElseThrow();
+        Thread.sleep(50);
+        JobLock current = jobLockService.tryLock(JOB, Duration.ofMinutes(1)).orElseThrow();
+
+        assertThat(jobLockService.unlock(expired, Duration.ZERO)).isFalse();
+        assertThat(jobLockService.isHeld(current)).isTrue();
+        assertThat(jobLockService.tryLock(JOB, Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void assertThatLockIsHeldForMinHoldTimeAfterRelease() {
+        JobLock lock = jobLockService.tryLock(JOB, Duration.ofMinutes(1)).orElseThrow();
+
+        assertThat(jobLockService.unlock(lock, Duration.ofMinutes(5))).isTrue();
+
+        assertThat(jobLockService.tryLock(JOB, Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void assertThatScheduledJobRunsOnceAcrossInstances() {
+        double acquiredBefore = runs("acquired");
+        double skippedBefore = runs("skipped");
+
+        productService.reportCategoryNameDrift();
+        // another instance firing the same schedule right after finds the lock still held for its min hold time
+        assertThat(productService.reportCategoryNameDrift()).isZero();
+
+        assertThat(runs("acquired") - acquiredBefore).isEqualTo(1);
+        assertThat(runs("skipped") - skippedBefore).isEqualTo(1);
+    }
+
+    private double runs(String outcome) {
+        return Optional
+            .ofNullable(
+                meterRegistry
+                    .find(SchedulerLockAspect.RUNS_METER_NAME)
+                    .tag("job", "reportCategoryNameDrift")
+                    .tag("outcome", outcome)
+                    .counter()
+            )
+            .map(Counter::count)
+            .orElse(0.0);
+    }
+}
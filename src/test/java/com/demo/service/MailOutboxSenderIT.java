@@ -0,0 +1,129 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.config.ApplicationProperties;
+import com.demo.domain.MailOutboxMessage;
+import com.demo.repository.MailOutboxMessageRepository;
+import com.demo.service.core.MailOutboxSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailOutboxSender}, sending to a local fake SMTP server.
+ */
+@IntegrationTest
+class MailOutboxSenderIT {
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private FakeSmtpServer smtpServer;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        mailOutboxMessageRepository.deleteAll();
+        applicationProperties.getMailOutbox().setEnabled(false);
+        smtpServer = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void assertThatBatchesReuseOneConnection() {
+        mailOutboxMessageRepository.saveAll(
+            IntStream.range(0, 120).mapToObj(i -> queuedMessage("user-" + i + "@example.com")).collect(Collectors.toList())
+        );
+
+        int sent = sender(smtpServer.getHost(), smtpServer.getPort()).sendPending();
+
+        assertThat(sent).isEqualTo(120);
+        assertThat(smtpServer.getMessages()).hasSize(120);
+        // default batch size of 50
+        assertThat(smtpServer.getConnections()).isEqualTo(3);
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+        assertThat(meterRegistry.get(MailOutboxSender.SENT_METER_NAME).counter().count()).isEqualTo(120);
+        assertThat(meterRegistry.get(MailOutboxSender.BATCH_SIZE_METER_NAME).summary().count()).isEqualTo(3);
+    }
+
+    @Test
+    void assertThatRejectedRecipientIsRetriedWithoutHoldingBackTheBatch() {
+        mailOutboxMessageRepository.saveAll(
+            List.of(
+                queuedMessage("john.doe@example.com"),
+                queuedMessage(FakeSmtpServer.REJECTED_RECIPIENT + "@example.com"),
+                queuedMessage("jane.doe@example.com")
+            )
+        );
+
+        int sent = sender(smtpServer.getHost(), smtpServer.getPort()).sendPending();
+
+        assertThat(sent).isEqualTo(2);
+        assertThat(smtpServer.getMessages()).hasSize(2);
+        List<MailOutboxMessage> remaining = mailOutboxMessageRepository.findAll();
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0).getTo()).startsWith(FakeSmtpServer.REJECTED_RECIPIENT);
+        assertThat(remaining.get(0).getAttempts()).isEqualTo(1);
+        assertThat(remaining.get(0).getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(meterRegistry.get(MailOutboxSender.FAILED_METER_NAME).tag("outcome", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void assertThatEmailIsDroppedAfterLastAttempt() throws Exception {
+        MailOutboxMessage message = queuedMessage("john.doe@example.com");
+        message.setAttempts(applicationProperties.getMailOutbox().getMaxAttempts() - 1);
+        mailOutboxMessageRepository.save(message);
+        String host = smtpServer.getHost();
+        int port = smtpServer.getPort();
+        smtpServer.close();
+
+        assertThat(sender(host, port).sendPending()).isZero();
+
+        MailOutboxMessage failed = mailOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(MailOutboxMessage.FAILED);
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(meterRegistry.get(MailOutboxSender.FAILED_METER_NAME).tag("outcome", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    private MailOutboxSender sender(String host, int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(host);
+        javaMailSender.setPort(port);
+        return new MailOutboxSender(mongoTemplate, javaMailSender, jHipsterProperties, applicationProperties, meterRegistry);
+    }
+
+    private static MailOutboxMessage queuedMessage(String to) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setTo(to);
+        message.setSubject("testSubject");
+        message.setContent("testContent");
+        message.setNextAttemptAt(message.getCreatedDate());
+        message.setLockedUntil(message.getCreatedDate());
+        return message;
+    }
+}
@@ -6,7 +6,10 @@ import static org.mockito.Mockito.*;
 
 import com.demo.IntegrationTest;
 import com.demo.config.Constants;
+import com.demo.domain.MailOutboxMessage;
 import com.demo.domain.User;
+import com.demo.repository.MailOutboxMessageRepository;
+import com.demo.service.core.MailOutboxSender;
 import com.demo.service.core.MailService;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -15,9 +18,15 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.mail.Multipart;
 import javax.mail.Session;
 import javax.mail.internet.MimeBodyPart;
@@ -25,8 +34,6 @@ import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mail.MailSendException;
@@ -52,23 +59,25 @@ class MailServiceIT {
     @MockBean
     private JavaMailSender javaMailSender;
 
-    @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
-
     @Autowired
     private MailService mailService;
 
+    @Autowired
+    private MailOutboxSender mailOutboxSender;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
     @BeforeEach
     public void setup() {
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        mailOutboxMessageRepository.deleteAll();
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
     }
 
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -80,8 +89,7 @@ class MailServiceIT {
     @Test
     void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -93,8 +101,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -110,8 +117,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -131,8 +137,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -147,8 +152,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -162,8 +166,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -177,8 +180,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -187,12 +189,56 @@ class MailServiceIT {
 
     @Test
     void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        doThrow(new MailSendException("Mail server connection failed")).when(javaMailSender).send((MimeMessage[]) any());
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+            assertThat(mailOutboxSender.sendPending()).isZero();
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        MailOutboxMessage retried = mailOutboxMessageRepository.findAll().get(0);
+        assertThat(retried.getStatus()).isEqualTo(MailOutboxMessage.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void testSendEmailsInOneBatch() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+
+        assertThat(mailOutboxSender.sendPending()).isEqualTo(2);
+        verify(javaMailSender, times(1)).send((MimeMessage[]) any());
+        assertThat(sentMessages()).hasSize(2);
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    void testSendEmailsFromTemplate() throws Exception {
+        User john = new User();
+        john.setLangKey(Constants.DEFAULT_LANGUAGE);
+        john.setLogin("john");
+        john.setEmail("john.doe@example.com");
+        User jane = new User();
+        jane.setLogin("jane");
+        jane.setEmail("jane.doe@example.com");
+        User withoutEmail = new User();
+        withoutEmail.setLangKey(Constants.DEFAULT_LANGUAGE);
+        withoutEmail.setLogin("anonymous");
+
+        mailService.sendEmailsFromTemplate(List.of(john, jane, withoutEmail), "mail/testEmail", "email.test.title");
+
+        assertThat(mailOutboxSender.sendPending()).isEqualTo(2);
+        List<String> contents = new ArrayList<>();
+        for (MimeMessage message : sentMessages()) {
+            assertThat(message.getSubject()).isEqualTo("test title");
+            contents.add(message.getContent().toString());
+        }
+        // jane has no language and gets the default one
+        assertThat(contents)
+            .hasSize(2)
+            .anyMatch(content -> content.contains("<html>test title, http://127.0.0.1:8080, john</html>"))
+            .anyMatch(content -> content.contains("<html>test title, http://127.0.0.1:8080, jane</html>"));
     }
 
     @Test
@@ -203,8 +249,7 @@ class MailServiceIT {
         for (String langKey : languages) {
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MimeMessage message = sendPendingMessage();
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
@@ -219,6 +264,27 @@ class MailServiceIT {
         }
     }
 
+    private MimeMessage sendPendingMessage() {
+        mailOutboxSender.sendPending();
+        List<MimeMessage> messages = sentMessages();
+        assertThat(messages).isNotEmpty();
+        return messages.get(messages.size() - 1);
+    }
+
+    /**
+     * Collects the messages handed to the mocked sender, which receives them in batches.
+     */
+    private List<MimeMessage> sentMessages() {
+        return mockingDetails(javaMailSender)
+            .getInvocations()
+            .stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("send"))
+            .flatMap(invocation -> Arrays.stream(invocation.getRawArguments()))
+            .flatMap(argument -> argument instanceof MimeMessage[] ? Arrays.stream((MimeMessage[]) argument) : Stream.of(argument))
+            .map(MimeMessage.class::cast)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
@@ -0,0 +1,105 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Customer;
+import com.demo.domain.Order;
+import com.demo.repository.CustomerRepository;
+import com.demo.repository.OrderRepository;
+import com.demo.service.core.OrderService;
+import com.demo.service.dto.OrderDTO;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Integration tests for {@link OrderService}.
+ */
+@IntegrationTest
+class OrderServiceIT {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeEach
+    public void init() {
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatSaveCopiesCustomerSnapshot() {
+        Customer john = createCustomer("John", "Doe", "john@localhost");
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(john.getId());
+        order.setTotalAmount(BigDecimal.TEN);
+
+        OrderDTO saved = orderService.save(order);
+
+        assertThat(saved.getCustomerName()).isEqualTo("John Doe");
+        assertThat(saved.getCustomerEmail()).isEqualTo("john@localhost");
+    }
+
+    @Test
+    void assertThatCustomerChangeCopiesNewCustomerSnapshot() {
+        Customer john = createCustomer("John", "Doe", "john@localhost");
+        Customer jane = createCustomer("Jane", "Roe", "jane@localhost");
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(john.getId());
+        order.setTotalAmount(BigDecimal.TEN);
+        OrderDTO saved = orderService.save(order);
+
+        saved.setCustomerId(jane.getId());
+        OrderDTO updated = orderService.update(saved);
+        assertThat(updated.getCustomerName()).isEqualTo("Jane Roe");
+        assertThat(updated.getCustomerEmail()).isEqualTo("jane@localhost");
+
+        OrderDTO movedBack = new OrderDTO();
+        movedBack.setId(saved.getId());
+        movedBack.setCustomerId(john.getId());
+        OrderDTO partiallyUpdated = orderService.partialUpdate(movedBack).orElseThrow();
+        assertThat(partiallyUpdated.getCustomerName()).isEqualTo("John Doe");
+        assertThat(partiallyUpdated.getCustomerEmail()).isEqualTo("john@localhost");
+    }
+
+    @Test
+    void assertThatTotalRangeComparesNumerically() {
+        createOrder("five", "5");
+        createOrder("nine", "9");
+        createOrder("fifty", "50.5");
+        createOrder("hundred", "100");
+        createOrder("thousand", "1000");
+
+        // as strings, "100" < "50.5" < "9" and no value lies between "9" and "100"
+        assertThat(orderService.searchOrders(null, null, null, null, null, new BigDecimal("9"), new BigDecimal("100"), Pageable.unpaged()))
+            .extracting(OrderDTO::getNotes)
+            .containsExactlyInAnyOrder("nine", "fifty", "hundred");
+        assertThat(orderService.searchOrders(null, null, null, null, null, null, new BigDecimal("50"), Pageable.unpaged()))
+            .extracting(OrderDTO::getNotes)
+            .containsExactlyInAnyOrder("five", "nine");
+    }
+
+    private Customer createCustomer(String firstName, String lastName, String email) {
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        customer.setEmail(email);
+        return customerRepository.save(customer);
+    }
+
+    private Order createOrder(String notes, String totalAmount) {
+        Order order = new Order();
+        order.setNotes(notes);
+        order.setTotalAmount(new BigDecimal(totalAmount));
+        return orderRepository.save(order);
+    }
+}
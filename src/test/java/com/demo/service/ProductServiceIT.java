@@ -0,0 +1,186 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Category;
+import com.demo.domain.Product;
+import com.demo.repository.CategoryRepository;
+import com.demo.repository.ProductRepository;
+import com.demo.service.core.ProductService;
+import com.demo.service.dto.ProductDTO;
+import com.demo.service.lock.JobLockService;
+import com.mongodb.client.model.Filters;
+import java.math.BigDecimal;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Integration tests for {@link ProductService}.
+ */
+@IntegrationTest
+class ProductServiceIT {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        mongoTemplate.dropCollection(JobLockService.COLLECTION);
+    }
+
+    @Test
+    void assertThatSaveCopiesCategoryName() {
+        Category books = createCategory("Books");
+        ProductDTO novel = new ProductDTO();
+        novel.setName("novel");
+        novel.setPrice(BigDecimal.TEN);
+        novel.setStockQuantity(1);
+        novel.setCategoryId(books.getId());
+        // a client cannot choose the denormalized name
+        novel.setCategoryName("Anything");
+
+        ProductDTO saved = productService.save(novel);
+
+        assertThat(saved.getCategoryName()).isEqualTo("Books");
+        assertThat(productRepository.findById(saved.getId()).orElseThrow().getCategoryName()).isEqualTo("Books");
+    }
+
+    @Test
+    void assertThatCategoryChangeCopiesNewCategoryName() {
+        Category books = createCategory("Books");
+        Category games = createCategory("Games");
+        Product product = createProduct("board game book", "10", 1);
+        product.setCategoryId(books.getId());
+        product.setCategoryName("Books");
+        product = productRepository.save(product);
+
+        ProductDTO moved = new ProductDTO(product);
+        moved.setCategoryId(games.getId());
+        assertThat(productService.update(moved).getCategoryName()).isEqualTo("Games");
+
+        ProductDTO movedBack = new ProductDTO();
+        movedBack.setId(product.getId());
+        movedBack.setCategoryId(books.getId());
+        assertThat(productService.partialUpdate(movedBack).orElseThrow().getCategoryName()).isEqualTo("Books");
+
+        ProductDTO uncategorized = new ProductDTO(productRepository.findById(product.getId()).orElseThrow());
+        uncategorized.setCategoryId(null);
+        assertThat(productService.update(uncategorized).getCategoryName()).isNull();
+    }
+
+    @Test
+    void assertThatCategoryNameDriftIsCounted() {
+        Category books = createCategory("Books");
+        Category games = createCategory("Games");
+        createCategorizedProduct("current", books.getId(), "Books");
+        createCategorizedProduct("current too", games.getId(), "Games");
+        createCategorizedProduct("stale", books.getId(), "Old books");
+        createCategorizedProduct("stale too", books.getId(), "Old books");
+        createCategorizedProduct("unnamed", games.getId(), null);
+        createCategorizedProduct("orphaned", "deleted-category", "Deleted");
+        createCategorizedProduct("orphaned, cleaned up", "deleted-category", null);
+        createCategorizedProduct("uncategorized", null, "Books");
+        createCategorizedProduct("uncategorized, unnamed", null, null);
+
+        assertThat(productService.reportCategoryNameDrift()).isEqualTo(5);
+    }
+
+    @Test
+    void assertThatPriceIsStoredAsDecimal128() {
+        Product product = createProduct("stored", "12.50", 1);
+
+        Document stored = mongoTemplate.getCollection("product").find(Filters.eq("_id", product.getId())).first();
+
+        assertThat(stored.get("price")).isEqualTo(new Decimal128(new BigDecimal("12.50")));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getPrice()).isEqualTo(new BigDecimal("12.50"));
+    }
+
+    @Test
+    void assertThatPriceRangeComparesNumerically() {
+        createProduct("five", "5", 1);
+        createProduct("nine", "9", 1);
+        createProduct("fifty", "50.5", 1);
+        createProduct("hundred", "100", 1);
+        createProduct("thousand", "1000", 1);
+
+        // as strings, "100" < "50.5" < "9" and no value lies between "9" and "100"
+        assertThat(productService.searchProducts(null, null, null, new BigDecimal("9"), new BigDecimal("100"), Pageable.unpaged()))
+            .extracting(ProductDTO::getName)
+            .containsExactlyInAnyOrder("nine", "fifty", "hundred");
+        assertThat(productService.searchProducts(null, null, null, new BigDecimal("10"), null, Pageable.unpaged()))
+            .extracting(ProductDTO::getName)
+            .containsExactlyInAnyOrder("fifty", "hundred", "thousand");
+    }
+
+    @Test
+    void assertThatLowStockCountIncludesNegativeStock() {
+        createProduct("empty", "10", 0);
+        createProduct("low", "10", 5);
+        createProduct("enough", "10", 10);
+        Product oversold = createProduct("oversold", "10", 1);
+        Product unknown = createProduct("unknown", "10", 1);
+        // validation keeps both states out of saved entities, but legacy data and raw updates can hold them
+        mongoTemplate.updateFirst(byId(oversold), new Update().set("stockQuantity", -3), Product.class);
+        mongoTemplate.updateFirst(byId(unknown), new Update().unset("stockQuantity"), Product.class);
+
+        assertThat(productService.getStatistics()).containsEntry("totalProducts", 5L).containsEntry("lowStockCount", 3);
+    }
+
+    @Test
+    void assertThatAveragePriceIsComputedFromDecimals() {
+        createProduct("nine", "9", 1);
+        createProduct("hundred", "100", 1);
+
+        assertThat(productService.getStatistics()).containsEntry("averagePrice", 54.5);
+    }
+
+    private static Query byId(Product product) {
+        return Query.query(Criteria.where("id").is(product.getId()));
+    }
+
+    /**
+     * Creates a product holding the given category fields as they are, like legacy data or a raw update can.
+     */
+    private void createCategorizedProduct(String name, String categoryId, String categoryName) {
+        Product product = createProduct(name, "10", 1);
+        mongoTemplate.updateFirst(
+            byId(product),
+            new Update().set("categoryId", categoryId).set("categoryName", categoryName),
+            Product.class
+        );
+    }
+
+    private Category createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+
+    private Product createProduct(String name, String price, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,241 @@
+package com.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.demo.Benchmark;
+import com.demo.IntegrationTest;
+import com.demo.config.ApplicationProperties;
+import com.demo.domain.Product;
+import com.demo.repository.ProductRepository;
+import com.demo.service.core.ProductService;
+import com.demo.service.core.StockWriteCombiner;
+import com.demo.service.dto.StockReservationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the stock reservation of {@link ProductService} and {@link StockWriteCombiner}, including
+ * contention benchmarks on a single hot product.
+ */
+@IntegrationTest
+class ProductStockReservationIT {
+
+    private static final int THREADS = 8;
+
+    private static final int BENCHMARK_THREADS = 400;
+
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    private final Logger log = LoggerFactory.getLogger(ProductStockReservationIT.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockWriteCombiner stockWriteCombiner;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatConcurrentReservationsNeverOversell() throws Exception {
+        assertThatHotProductNeverOversells("direct", THREADS, id -> productService.reserveStock(id, 1));
+    }
+
+    @Test
+    @Benchmark
+    void benchmarkConcurrentReservations() throws Exception {
+        assertThatHotProductNeverOversells("direct", BENCHMARK_THREADS, id -> productService.reserveStock(id, 1));
+    }
+
+    @Test
+    void assertThatCombinedReservationsNeverOversell() throws Exception {
+        assertThatHotProductNeverOversells("combined", THREADS, id -> stockWriteCombiner.reserveStock(id, 1));
+    }
+
+    @Test
+    @Benchmark
+    void benchmarkCombinedReservations() throws Exception {
+        assertThatHotProductNeverOversells("combined", BENCHMARK_THREADS, id -> stockWriteCombiner.reserveStock(id, 1));
+    }
+
+    @Test
+    void assertThatLargeCombinedReservationsDoNotWrapAround() throws Exception {
+        Product product = createProduct("large", 10);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    // both in one batch, their int sum would be negative and add stock instead of removing it
+                    return stockWriteCombiner.reserveStock(product.getId(), Integer.MAX_VALUE - 1);
+                })
+            );
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            assertThatThrownBy(() -> future.get(1, TimeUnit.MINUTES)).hasCauseInstanceOf(InsufficientStockException.class);
+        }
+        executor.shutdown();
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void assertThatLargeMultiItemReservationDoesNotWrapAround() {
+        Product product = createProduct("large-lines", 10);
+
+        assertThatThrownBy(() ->
+                productService.reserveStock(
+                    List.of(
+                        new StockReservationDTO(product.getId(), Integer.MAX_VALUE),
+                        new StockReservationDTO(product.getId(), Integer.MAX_VALUE)
+                    )
+                )
+            )
+            .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void assertThatPendingReservationFailsAtShutdown() throws Exception {
+        Product product = createProduct("shutdown", 10);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        // a batch that would only be flushed long after the shutdown
+        applicationProperties.getStock().getWriteCombining().setWindow(Duration.ofMinutes(1));
+        StockWriteCombiner combiner = new StockWriteCombiner(productService, applicationProperties, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> pending = executor.submit(() -> combiner.reserveStock(product.getId(), 1));
+        Thread.sleep(100);
+
+        combiner.shutdown();
+
+        assertThatThrownBy(() -> pending.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(StockReservationUnavailableException.class);
+        assertThatThrownBy(() -> combiner.reserveStock(product.getId(), 1)).isInstanceOf(StockReservationUnavailableException.class);
+        executor.shutdown();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void assertThatFailedMultiItemReservationRollsBack() {
+        Product first = createProduct("first", 5);
+        Product second = createProduct("second", 1);
+
+        assertThatThrownBy(() ->
+                productService.reserveStock(
+                    List.of(new StockReservationDTO(first.getId(), 2), new StockReservationDTO(second.getId(), 2))
+                )
+            )
+            .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(productRepository.findById(first.getId()).orElseThrow().getStockQuantity()).isEqualTo(5);
+        assertThat(productRepository.findById(second.getId()).orElseThrow().getStockQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    void assertThatMultiItemReservationMergesLines() {
+        Product product = createProduct("merged", 5);
+
+        productService.reserveStock(List.of(new StockReservationDTO(product.getId(), 2), new StockReservationDTO(product.getId(), 3)));
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    @Test
+    void assertThatReleaseRestoresStock() {
+        Product product = createProduct("released", 3);
+
+        productService.reserveStock(product.getId(), 3);
+        productService.releaseStock(product.getId(), 2);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(2);
+    }
+
+    /**
+     * Lets the given number of threads reserve one item at a time of a product holding stock for a quarter of their
+     * attempts, and checks that exactly the stock gets reserved.
+     */
+    private void assertThatHotProductNeverOversells(String mode, int threads, Consumer<String> reserveOne) throws Exception {
+        int attempts = threads * ATTEMPTS_PER_THREAD;
+        int stock = attempts / 4;
+        Product product = createProduct("hot", stock);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                        try {
+                            reserveOne.accept(product.getId());
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                })
+            );
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        executor.shutdown();
+
+        log.info(
+            "{}: {} reservations by {} threads on one product in {} ms ({} ops/s), {} reserved, {} rejected",
+            mode,
+            attempts,
+            threads,
+            elapsedMillis,
+            attempts * 1000L / elapsedMillis,
+            reserved.get(),
+            rejected.get()
+        );
+        assertThat(reserved.get()).isEqualTo(stock);
+        assertThat(rejected.get()).isEqualTo(attempts - stock);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    private Product createProduct(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+}
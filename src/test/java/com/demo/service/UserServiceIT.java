@@ -1,6 +1,7 @@
 package com.demo.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.demo.IntegrationTest;
 import com.demo.config.Constants;
@@ -8,16 +9,25 @@ import com.demo.domain.User;
 import com.demo.repository.UserRepository;
 import com.demo.service.core.UserService;
 import com.demo.service.dto.AdminUserDTO;
+import com.demo.service.lock.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -44,11 +54,18 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private User user;
 
     @BeforeEach
     public void init() {
         userRepository.deleteAll();
+        mongoTemplate.dropCollection(JobLockService.COLLECTION);
         user = new User();
         user.setLogin(DEFAULT_LOGIN);
         user.setPassword(RandomStringUtils.randomAlphanumeric(60));
@@ -73,6 +90,26 @@ class UserServiceIT {
         assertThat(maybeUser.orElse(null).getResetKey()).isNotNull();
     }
 
+    @Test
+    void assertThatEmailIsLookedUpIgnoringCase() {
+        user.setEmail(DEFAULT_EMAIL.toUpperCase(Locale.ENGLISH));
+        userRepository.save(user);
+
+        assertThat(user.getEmail()).isEqualTo(DEFAULT_EMAIL);
+        assertThat(userRepository.findOneByEmailIgnoreCase("JohnDoe@Localhost")).isPresent();
+    }
+
+    @Test
+    void assertThatEmailMustBeUnique() {
+        userRepository.save(user);
+        User duplicate = new User();
+        duplicate.setLogin("janedoe");
+        duplicate.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        duplicate.setEmail(DEFAULT_EMAIL.toUpperCase(Locale.ENGLISH));
+
+        assertThatThrownBy(() -> userRepository.save(duplicate)).isInstanceOf(DuplicateKeyException.class);
+    }
+
     @Test
     void assertThatOnlyActivatedUserCanRequestPasswordReset() {
         user.setActivated(false);
@@ -159,4 +196,47 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    void assertThatNotActivatedUsersAreRemovedInChunks() {
+        Instant fourDaysAgo = Instant.now().minus(4, ChronoUnit.DAYS);
+        List<User> staleUsers = userRepository.saveAll(
+            IntStream.range(0, 1234).mapToObj(i -> notActivatedUser("stale-" + i)).collect(Collectors.toList())
+        );
+        staleUsers.forEach(staleUser -> staleUser.setCreatedDate(fourDaysAgo));
+        userRepository.saveAll(staleUsers);
+        double removedBefore = meterRegistry.get(UserService.CLEANUP_REMOVED_METER_NAME).counter().count();
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.count()).isZero();
+        assertThat(meterRegistry.get(UserService.CLEANUP_REMOVED_METER_NAME).counter().count() - removedBefore).isEqualTo(1234);
+    }
+
+    @Test
+    void assertThatNotActivatedUsersAreNotRemovedWhileAnotherInstanceHoldsTheLock() {
+        User staleUser = userRepository.save(notActivatedUser("stale"));
+        staleUser.setCreatedDate(Instant.now().minus(4, ChronoUnit.DAYS));
+        userRepository.save(staleUser);
+        mongoTemplate.save(
+            new Document("_id", "removeNotActivatedUsers")
+                .append("locked_until", Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .append("locked_by", "another-instance"),
+            JobLockService.COLLECTION
+        );
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findById(staleUser.getId())).isPresent();
+    }
+
+    private User notActivatedUser(String login) {
+        User notActivated = new User();
+        notActivated.setLogin(login);
+        notActivated.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        notActivated.setEmail(login + "@localhost");
+        notActivated.setActivated(false);
+        notActivated.setActivationKey(RandomStringUtils.randomAlphanumeric(20));
+        return notActivated;
+    }
 }
@@ -0,0 +1,171 @@
+package com.demo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Product;
+import com.demo.repository.ProductRepository;
+import com.demo.service.dto.ProductDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the negotiation of the binary Smile and CBOR formats on the REST API.
+ */
+@WithMockUser
+@AutoConfigureMockMvc
+@IntegrationTest
+class BinaryContentNegotiationIT {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Product product;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+        product = new Product();
+        product.setName("binary-negotiation");
+        product.setPrice(new BigDecimal("12.50"));
+        product.setStockQuantity(3);
+        product = productRepository.save(product);
+    }
+
+    @Test
+    void assertThatListIsWrittenInSmile() throws Exception {
+        byte[] body = mockMvc
+            .perform(get("/api/products").accept(APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        List<ProductDTO> products = smileMapper().readValue(body, new TypeReference<List<ProductDTO>>() {});
+        assertThat(products).extracting(ProductDTO::getName).containsExactly("binary-negotiation");
+        assertThat(products.get(0).getPrice()).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void assertThatJsonStaysTheDefault() throws Exception {
+        mockMvc
+            .perform(get("/api/products").accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void assertThatListIsRevalidatedPerRepresentation() throws Exception {
+        assertThatRepresentationsHaveTheirOwnETag("/api/products");
+    }
+
+    @Test
+    void assertThatEntityIsRevalidatedPerRepresentation() throws Exception {
+        assertThatRepresentationsHaveTheirOwnETag("/api/products/" + product.getId());
+    }
+
+    @Test
+    void assertThatEntityIsCreatedFromCbor() throws Exception {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setName("created-from-cbor");
+        productDTO.setPrice(BigDecimal.ONE);
+        productDTO.setStockQuantity(1);
+        ObjectMapper cborMapper = cborHttpMessageConverter.getObjectMapper();
+
+        byte[] body = mockMvc
+            .perform(
+                post("/api/products")
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .content(cborMapper.writeValueAsBytes(productDTO))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        ProductDTO created = cborMapper.readValue(body, ProductDTO.class);
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getName()).isEqualTo("created-from-cbor");
+    }
+
+    @Test
+    void assertThatBulkRequestIsReadFromSmile() throws Exception {
+        mockMvc
+            .perform(
+                delete("/api/products/bulk")
+                    .contentType(APPLICATION_SMILE)
+                    .content(smileMapper().writeValueAsBytes(List.of(product.getId())))
+            )
+            .andExpect(status().isNoContent());
+
+        assertThat(productRepository.findById(product.getId())).isEmpty();
+    }
+
+    private void assertThatRepresentationsHaveTheirOwnETag(String uri) throws Exception {
+        String jsonETag = mockMvc
+            .perform(get(uri).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(BinaryContentNegotiationIT::variesByAccept)
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        String smileETag = mockMvc
+            .perform(get(uri).accept(APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        assertThat(smileETag).isNotNull().isNotEqualTo(jsonETag);
+        // the JSON ETag must not validate the Smile copy
+        mockMvc
+            .perform(get(uri).accept(APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE));
+        mockMvc
+            .perform(get(uri).accept(APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, smileETag))
+            .andExpect(status().isNotModified())
+            .andExpect(BinaryContentNegotiationIT::variesByAccept);
+    }
+
+    private static void variesByAccept(MvcResult result) {
+        assertThat(String.join(",", result.getResponse().getHeaders(HttpHeaders.VARY))).contains(HttpHeaders.ACCEPT);
+    }
+
+    private ObjectMapper smileMapper() {
+        return smileHttpMessageConverter.getObjectMapper();
+    }
+}
@@ -0,0 +1,157 @@
+package com.demo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Category;
+import com.demo.repository.CategoryRepository;
+import com.demo.service.dto.CategoryDTO;
+import com.demo.web.rest.util.ETagUtil;
+import java.io.IOException;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Integration tests for the updates of {@link com.demo.web.rest.controller.CategoryController}.
+ */
+@AutoConfigureMockMvc
+@WithMockUser("category-editor")
+@IntegrationTest
+class CategoryControllerIT {
+
+    private static final String ENTITY_API_URL_ID = "/api/categories/{id}";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Category category;
+
+    @BeforeEach
+    public void init() {
+        categoryRepository.deleteAll();
+        category = new Category();
+        category.setName("Books");
+        category.setDescription("Printed books");
+        category.setSlug("books");
+        category = categoryRepository.save(category);
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("id").is(category.getId())),
+            Update.update("lastModifiedBy", "creator").set("lastModifiedDate", Instant.parse("2024-01-01T00:00:00Z")),
+            Category.class
+        );
+        category = categoryRepository.findById(category.getId()).orElseThrow();
+    }
+
+    @Test
+    void partialUpdateSetsOnlyPresentFields() throws Exception {
+        CategoryDTO patch = new CategoryDTO();
+        patch.setId(category.getId());
+        patch.setDescription("Printed and electronic books");
+
+        mockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, category.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(patch))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Books"))
+            .andExpect(jsonPath("$.description").value("Printed and electronic books"))
+            .andExpect(jsonPath("$.version").value(1))
+            .andExpect(jsonPath("$.lastModifiedBy").value("category-editor"));
+
+        Category updated = categoryRepository.findById(category.getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Books");
+        assertThat(updated.getSlug()).isEqualTo("books");
+        assertThat(updated.getDescription()).isEqualTo("Printed and electronic books");
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getLastModifiedBy()).isEqualTo("category-editor");
+        assertThat(updated.getLastModifiedDate()).isAfter(category.getLastModifiedDate());
+        assertThat(updated.getCreatedDate()).isEqualTo(category.getCreatedDate());
+        assertThat(updated.getCreatedBy()).isEqualTo(category.getCreatedBy());
+    }
+
+    @Test
+    void updateWithCurrentIfMatchSucceeds() throws Exception {
+        mockMvc
+            .perform(update(replacement()).header(HttpHeaders.IF_MATCH, ETagUtil.strongETag(category.getId(), 0L)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, ETagUtil.strongETag(category.getId(), 1L)))
+            .andExpect(jsonPath("$.name").value("Magazines"));
+    }
+
+    @Test
+    void updateWithStaleIfMatchFailsPrecondition() throws Exception {
+        modifyConcurrently();
+
+        mockMvc
+            .perform(update(replacement()).header(HttpHeaders.IF_MATCH, ETagUtil.strongETag(category.getId(), 0L)))
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(categoryRepository.findById(category.getId()).orElseThrow().getName()).isEqualTo("Books, concurrently");
+    }
+
+    @Test
+    void updateWithMalformedIfMatchFailsPrecondition() throws Exception {
+        mockMvc
+            .perform(update(replacement()).header(HttpHeaders.IF_MATCH, "\"not-a-version\""))
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(categoryRepository.findById(category.getId()).orElseThrow().getName()).isEqualTo("Books");
+    }
+
+    @Test
+    void updateWithStaleBodyVersionConflicts() throws Exception {
+        modifyConcurrently();
+        CategoryDTO replacement = replacement();
+        replacement.setVersion(0L);
+
+        mockMvc.perform(update(replacement)).andExpect(status().isConflict());
+
+        assertThat(categoryRepository.findById(category.getId()).orElseThrow().getName()).isEqualTo("Books, concurrently");
+    }
+
+    private CategoryDTO replacement() {
+        CategoryDTO replacement = new CategoryDTO();
+        replacement.setId(category.getId());
+        replacement.setName("Magazines");
+        replacement.setSlug("magazines");
+        replacement.setActive(true);
+        return replacement;
+    }
+
+    private void modifyConcurrently() {
+        Category concurrent = categoryRepository.findById(category.getId()).orElseThrow();
+        concurrent.setName("Books, concurrently");
+        categoryRepository.save(concurrent);
+    }
+
+    private MockHttpServletRequestBuilder update(CategoryDTO categoryDTO) throws IOException {
+        return put(ENTITY_API_URL_ID, category.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(categoryDTO));
+    }
+}
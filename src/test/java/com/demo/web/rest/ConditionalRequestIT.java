@@ -0,0 +1,146 @@
+package com.demo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Product;
+import com.demo.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the conditional {@code GET} requests answered with ETags.
+ */
+@WithMockUser
+@AutoConfigureMockMvc
+@IntegrationTest
+class ConditionalRequestIT {
+
+    private static final String ENTITY_API_URL = "/api/products";
+
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Product product;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+        product = createProduct("conditional");
+    }
+
+    @Test
+    void assertThatCurrentEntityIsNotModified() throws Exception {
+        String etag = etagOf(ENTITY_API_URL_ID);
+
+        mockMvc
+            .perform(get(ENTITY_API_URL_ID, product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void assertThatUpdatedEntityGetsNewETag() throws Exception {
+        String etag = etagOf(ENTITY_API_URL_ID);
+        product.setName("conditional, renamed");
+        productRepository.save(product);
+
+        String newETag = mockMvc
+            .perform(get(ENTITY_API_URL_ID, product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        assertThat(newETag).isNotNull().isNotEqualTo(etag);
+    }
+
+    @Test
+    void assertThatCurrentListIsNotModified() throws Exception {
+        String etag = etagOf(ENTITY_API_URL);
+
+        mockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void assertThatListGetsNewETagOnCreate() throws Exception {
+        String etag = etagOf(ENTITY_API_URL);
+        createProduct("conditional, created");
+
+        assertThatListIsModifiedSince(etag);
+    }
+
+    @Test
+    void assertThatListGetsNewETagOnUpdate() throws Exception {
+        String etag = etagOf(ENTITY_API_URL);
+        product.setName("conditional, renamed");
+        productRepository.save(product);
+
+        assertThatListIsModifiedSince(etag);
+    }
+
+    private void assertThatListIsModifiedSince(String etag) throws Exception {
+        String newETag = mockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        assertThat(newETag).isNotNull().isNotEqualTo(etag);
+    }
+
+    private String etagOf(String urlTemplate) throws Exception {
+        return mockMvc
+            .perform(get(urlTemplate, product.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    }
+
+    /**
+     * Creates a product last modified in the past, so that a write in the test always moves the collection stamp.
+     */
+    private Product createProduct(String name) {
+        Product created = new Product();
+        created.setName(name);
+        created.setPrice(BigDecimal.TEN);
+        created.setStockQuantity(1);
+        created = productRepository.save(created);
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("id").is(created.getId())),
+            Update.update("lastModifiedDate", Instant.parse("2024-01-01T00:00:00Z")),
+            Product.class
+        );
+        return productRepository.findById(created.getId()).orElseThrow();
+    }
+}
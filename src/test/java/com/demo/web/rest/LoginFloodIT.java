@@ -0,0 +1,171 @@
+package com.demo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.demo.Benchmark;
+import com.demo.IntegrationTest;
+import com.demo.domain.Product;
+import com.demo.domain.User;
+import com.demo.repository.ProductRepository;
+import com.demo.repository.UserRepository;
+import com.demo.security.BoundedPasswordEncoder;
+import com.demo.web.rest.vm.LoginVM;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Benchmark of product reads while {@code /api/authenticate} is flooded, checking that password hashing stays confined
+ * to its bounded pool and that overflowing logins are rejected instead of queued.
+ */
+@Benchmark
+@AutoConfigureMockMvc
+@IntegrationTest
+class LoginFloodIT {
+
+    private static final int LOGIN_THREADS = 64;
+
+    private static final int READS = 500;
+
+    private final Logger log = LoggerFactory.getLogger(LoginFloodIT.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private User user;
+
+    private Product product;
+
+    @BeforeEach
+    public void init() {
+        user = new User();
+        user.setLogin("login-flood");
+        user.setEmail("login-flood@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user = userRepository.save(user);
+        product = new Product();
+        product.setName("login-flood");
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(1);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.delete(user);
+        productRepository.delete(product);
+    }
+
+    @Test
+    void assertThatReadsAreServedDuringLoginFlood() throws Exception {
+        String productId = product.getId();
+        long[] baseline = readLatencies(productId);
+
+        LoginVM login = new LoginVM();
+        login.setUsername(user.getLogin());
+        login.setPassword("test");
+        byte[] loginBody = TestUtil.convertObjectToJsonBytes(login);
+        double rejectedBefore = meterRegistry.get(BoundedPasswordEncoder.REJECTED_METER_NAME).counter().count();
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(LOGIN_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < LOGIN_THREADS; i++) {
+            futures.add(
+                executor.submit(() -> {
+                    while (flooding.get()) {
+                        int status = mockMvc
+                            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(loginBody))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                        if (status == HttpStatus.OK.value()) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            assertThat(status).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                })
+            );
+        }
+
+        long[] flood;
+        try {
+            flood = readLatencies(productId);
+        } finally {
+            flooding.set(false);
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        log.info(
+            "Product reads p50/p99: {}/{} µs idle, {}/{} µs during login flood ({} logins succeeded, {} rejected)",
+            percentile(baseline, 50),
+            percentile(baseline, 99),
+            percentile(flood, 50),
+            percentile(flood, 99),
+            succeeded.get(),
+            rejected.get()
+        );
+        assertThat(succeeded.get()).isPositive();
+        // the counter is shared with anything else hashing passwords meanwhile, so it can only be bounded from below
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.REJECTED_METER_NAME).counter().count() - rejectedBefore)
+            .isGreaterThanOrEqualTo(rejected.get());
+    }
+
+    private long[] readLatencies(String productId) throws Exception {
+        long[] latencies = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            long start = System.nanoTime();
+            int status = mockMvc.perform(get("/api/products/{id}", productId).with(user("reader"))).andReturn().getResponse().getStatus();
+            latencies[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            assertThat(status).isEqualTo(HttpStatus.OK.value());
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
@@ -0,0 +1,153 @@
+package com.demo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.demo.IntegrationTest;
+import com.demo.domain.Order;
+import com.demo.domain.Product;
+import com.demo.repository.OrderRepository;
+import com.demo.repository.ProductRepository;
+import com.demo.web.rest.util.NdjsonResponseBody;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the newline-delimited JSON streaming endpoints of products and orders.
+ */
+@WithMockUser
+@AutoConfigureMockMvc
+@IntegrationTest
+class NdjsonStreamingIT {
+
+    /**
+     * More records than the flush interval of {@link NdjsonResponseBody}.
+     */
+    private static final int RECORDS = 250;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void init() {
+        productRepository.deleteAll();
+        orderRepository.deleteAll();
+        List<Product> products = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= RECORDS; i++) {
+            Product product = new Product();
+            product.setName((i % 3 == 0 ? "streamed " : "other ") + i);
+            product.setPrice(BigDecimal.valueOf(i));
+            product.setStockQuantity(i);
+            product.setActive(i % 2 == 0);
+            products.add(product);
+            Order order = new Order();
+            order.setCustomerId(i % 5 == 0 ? "frequent" : "occasional");
+            order.setStatus(i % 2 == 0 ? "SHIPPED" : "PENDING");
+            order.setTotalAmount(BigDecimal.valueOf(i));
+            orders.add(order);
+        }
+        productRepository.saveAll(products);
+        orderRepository.saveAll(orders);
+    }
+
+    @Test
+    void assertThatEveryProductIsStreamedOnItsOwnLine() throws Exception {
+        List<JsonNode> lines = stream("/api/products/stream");
+
+        assertThat(lines).hasSize(RECORDS).allMatch(JsonNode::isObject);
+        assertThat(lines).extracting(line -> line.get("id").asText()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void assertThatStreamedProductsMatchSearch() throws Exception {
+        String filters = "?name=streamed&active=true&minPrice=9&maxPrice=200";
+
+        List<String> streamed = ids(stream("/api/products/stream" + filters));
+        List<String> searched = ids(search("/api/products/search" + filters));
+
+        assertThat(streamed).isNotEmpty().containsExactlyInAnyOrderElementsOf(searched);
+    }
+
+    @Test
+    void assertThatEveryOrderIsStreamedOnItsOwnLine() throws Exception {
+        List<JsonNode> lines = stream("/api/orders/stream");
+
+        assertThat(lines).hasSize(RECORDS).allMatch(JsonNode::isObject);
+    }
+
+    @Test
+    void assertThatStreamedOrdersMatchSearch() throws Exception {
+        String filters = "?customerId=frequent&status=shipped&minTotal=20&maxTotal=180";
+
+        List<String> streamed = ids(stream("/api/orders/stream" + filters));
+        List<String> searched = ids(search("/api/orders/search" + filters));
+
+        assertThat(streamed).isNotEmpty().containsExactlyInAnyOrderElementsOf(searched);
+    }
+
+    private List<JsonNode> stream(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andExpect(request().asyncStarted()).andReturn();
+        String body = mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(NdjsonResponseBody.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        // a line holding anything but a single JSON value fails to parse
+        ObjectReader lineReader = objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(lineReader.readTree(line));
+        }
+        return lines;
+    }
+
+    private List<JsonNode> search(String url) throws Exception {
+        String body = mockMvc
+            .perform(get(url + "&size=" + RECORDS))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        List<JsonNode> results = new ArrayList<>();
+        objectMapper.readTree(body).forEach(results::add);
+        return results;
+    }
+
+    private static List<String> ids(List<JsonNode> records) {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode record : records) {
+            ids.add(record.get("id").asText());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.Benchmark;
+import com.demo.DemojhipsterApp;
+import com.demo.config.AsyncSyncConfiguration;
+import com.demo.config.EmbeddedMongo;
+import com.demo.domain.Order;
+import com.demo.repository.OrderRepository;
+import com.demo.security.AuthoritiesConstants;
+import com.demo.security.jwt.TokenProvider;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Benchmark of {@code /api/orders/search} throughput under 1k concurrent connections against the real Undertow server,
+ * on its regular worker pool. {@link VirtualThreadsOrderSearchThroughputIT} runs the same load with the
+ * {@code virtual-threads} profile; compare the {@code req/s} and p99 logged by both.
+ */
+@Benchmark
+@SpringBootTest(
+    classes = { DemojhipsterApp.class, AsyncSyncConfiguration.class },
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+@EmbeddedMongo
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OrderSearchThroughputIT {
+
+    private static final int CONNECTIONS = 1000;
+
+    private static final int ORDERS = 500;
+
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    public void init() {
+        orderRepository.deleteAll();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= ORDERS; i++) {
+            Order order = new Order();
+            order.setCustomerId("customer-" + (i % 50));
+            order.setStatus(i % 2 == 0 ? "SHIPPED" : "PENDING");
+            order.setTotalAmount(BigDecimal.valueOf(i));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @Test
+    void assertThatOrderSearchSustainsConcurrentConnections() throws Exception {
+        String token = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken("benchmark", null, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))),
+            false
+        );
+        HttpRequest request = HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + "/api/orders/search?status=PENDING&page=0&size=20"))
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .GET()
+            .build();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        run(client, request, WARM_UP);
+        Result result = run(client, request, MEASUREMENT);
+
+        assertThat(result.completed).isPositive();
+        log.info(
+            "Order search over {} connections ({}): {} req/s, p50/p99 {}/{} ms, {} failed",
+            CONNECTIONS,
+            threadModel(),
+            result.completed * 1000 / MEASUREMENT.toMillis(),
+            result.percentile(50),
+            result.percentile(99),
+            result.failed
+        );
+        assertThat(result.failed).isZero();
+    }
+
+    /**
+     * @return how the server dispatches requests, for the log line.
+     */
+    protected String threadModel() {
+        return "platform threads";
+    }
+
+    /**
+     * Keeps {@link #CONNECTIONS} requests in flight for the given duration, starting a new one as soon as one completes.
+     */
+    private static Result run(HttpClient client, HttpRequest request, Duration duration) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONNECTIONS);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger failed = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client
+                .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null || response.statusCode() != HttpStatus.OK.value()) {
+                        failed.incrementAndGet();
+                    } else {
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                    inFlight.release();
+                });
+        }
+        assertThat(inFlight.tryAcquire(CONNECTIONS, 2, TimeUnit.MINUTES)).isTrue();
+        return new Result(latencies.stream().mapToLong(Long::longValue).sorted().toArray(), failed.get());
+    }
+
+    private static final class Result {
+
+        private final long[] sortedLatencies;
+
+        private final long completed;
+
+        private final int failed;
+
+        private Result(long[] sortedLatencies, int failed) {
+            this.sortedLatencies = sortedLatencies;
+            this.completed = sortedLatencies.length;
+            this.failed = failed;
+        }
+
+        private long percentile(int percentile) {
+            return sortedLatencies[Math.min(sortedLatencies.length - 1, sortedLatencies.length * percentile / 100)];
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.demo.web.rest;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.demo.Benchmark;
+import com.demo.config.Constants;
+import com.demo.config.VirtualThreadsConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the {@link OrderSearchThroughputIT} load with the {@code virtual-threads} profile. Skipped on a JDK without
+ * virtual threads, where the profile would silently keep the worker pool.
+ */
+@Benchmark
+@ActiveProfiles(Constants.SPRING_PROFILE_VIRTUAL_THREADS)
+class VirtualThreadsOrderSearchThroughputIT extends OrderSearchThroughputIT {
+
+    @Autowired
+    private VirtualThreadsConfiguration virtualThreadsConfiguration;
+
+    @BeforeEach
+    public void assumeVirtualThreads() {
+        assumeTrue(virtualThreadsConfiguration.getExecutor().isPresent(), "this JDK has no virtual threads");
+    }
+
+    @Override
+    protected String threadModel() {
+        return "virtual threads";
+    }
+}
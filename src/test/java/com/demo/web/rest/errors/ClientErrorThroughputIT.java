@@ -0,0 +1,109 @@
+package com.demo.web.rest.errors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import com.demo.Benchmark;
+import com.demo.IntegrationTest;
+import com.demo.domain.Product;
+import com.demo.repository.ProductRepository;
+import com.demo.service.dto.ProductDTO;
+import com.demo.web.rest.TestUtil;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Benchmark of the throughput of client errors, compared to successful reads of the same resource and to a client
+ * error translated through the generic path, with a stack trace and a logged warning.
+ */
+@Benchmark
+@WithMockUser
+@AutoConfigureMockMvc
+@IntegrationTest
+class ClientErrorThroughputIT {
+
+    private static final int WARM_UP_REQUESTS = 1_000;
+
+    private static final int REQUESTS = 5_000;
+
+    private final Logger log = LoggerFactory.getLogger(ClientErrorThroughputIT.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void measureClientErrorThroughput() throws Exception {
+        Product product = new Product();
+        product.setName("client-error-throughput");
+        product.setPrice(BigDecimal.TEN);
+        product.setStockQuantity(1);
+        String productId = productRepository.save(product).getId();
+        try {
+            measureAgainst(productId);
+        } finally {
+            productRepository.deleteById(productId);
+        }
+    }
+
+    private void measureAgainst(String productId) throws Exception {
+        ProductDTO missing = new ProductDTO();
+        missing.setId("missing");
+        missing.setName("client-error-throughput");
+        missing.setPrice(BigDecimal.TEN);
+        missing.setStockQuantity(1);
+        byte[] missingBody = TestUtil.convertObjectToJsonBytes(missing);
+
+        long found = throughput("found", get("/api/products/{id}", productId), HttpStatus.OK);
+        long notFound = throughput("not found", get("/api/products/{id}", "missing"), HttpStatus.NOT_FOUND);
+        long updateNotFound = throughput(
+            "update not found",
+            put("/api/products/{id}", "missing").contentType(MediaType.APPLICATION_JSON).content(missingBody),
+            HttpStatus.NOT_FOUND
+        );
+        long badRequest = throughput(
+            "bad request",
+            put("/api/products/{id}", productId).contentType(MediaType.APPLICATION_JSON).content(missingBody),
+            HttpStatus.BAD_REQUEST
+        );
+        long withStackTrace = throughput("with stack trace", get("/api/exception-translator-test/response-status"), HttpStatus.BAD_REQUEST);
+
+        log.info(
+            "Requests/s: {} found, {} not found, {} update not found, {} bad request, {} bad request with stack trace",
+            found,
+            notFound,
+            updateNotFound,
+            badRequest,
+            withStackTrace
+        );
+    }
+
+    private long throughput(String mode, RequestBuilder request, HttpStatus expectedStatus) throws Exception {
+        for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+            assertThat(mockMvc.perform(request).andReturn().getResponse().getStatus()).isEqualTo(expectedStatus.value());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            mockMvc.perform(request);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long rate = REQUESTS * 1000L / Math.max(elapsed, 1);
+        log.info("Sent {} requests answered {} {}: {} requests/s", REQUESTS, expectedStatus.value(), mode, rate);
+        return rate;
+    }
+}
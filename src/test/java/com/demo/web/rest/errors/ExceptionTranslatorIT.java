@@ -1,8 +1,10 @@
 package com.demo.web.rest.errors;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -106,6 +108,56 @@ class ExceptionTranslatorIT {
             .andExpect(jsonPath("$.title").value("test response status"));
     }
 
+    @Test
+    void testBadRequestAlert() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/bad-request-alert"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(header().string("X-demojhipsterApp-error", "error.idinvalid"))
+            .andExpect(jsonPath("$.message").value("error.idinvalid"))
+            .andExpect(jsonPath("$.params").value("test"))
+            .andExpect(jsonPath("$.title").value("test bad request alert"));
+    }
+
+    @Test
+    void testEntityNotFound() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/entity-not-found"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.type").value(ErrorConstants.ENTITY_NOT_FOUND_TYPE.toString()))
+            .andExpect(jsonPath("$.message").value("error.idnotfound"))
+            .andExpect(jsonPath("$.params").value("test"));
+    }
+
+    @Test
+    void testIdempotencyKeyInProgress() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/idempotency-key-in-progress"))
+            .andExpect(status().isConflict())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.type").value(ErrorConstants.IDEMPOTENCY_KEY_IN_PROGRESS_TYPE.toString()));
+    }
+
+    @Test
+    void testIdempotencyResponseUnavailable() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/idempotency-response-unavailable"))
+            .andExpect(status().isConflict())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.type").value(ErrorConstants.IDEMPOTENCY_RESPONSE_UNAVAILABLE_TYPE.toString()));
+    }
+
+    @Test
+    void testExpectedErrorsHaveNoStackTrace() {
+        assertThat(new BadRequestAlertException("test", "test", "idinvalid").getStackTrace()).isEmpty();
+        assertThat(new EntityNotFoundException().getStackTrace()).isEmpty();
+        assertThat(new com.demo.service.EntityNotFoundException("test", "missing").getStackTrace()).isEmpty();
+        assertThat(new InsufficientStockException("missing").getStackTrace()).isEmpty();
+        assertThat(new com.demo.service.InsufficientStockException("missing").getStackTrace()).isEmpty();
+    }
+
     @Test
     void testInternalServerError() throws Exception {
         mockMvc
@@ -41,6 +41,26 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @GetMapping("/bad-request-alert")
+    public void badRequestAlert() {
+        throw new BadRequestAlertException("test bad request alert", "test", "idinvalid");
+    }
+
+    @GetMapping("/entity-not-found")
+    public void entityNotFound() {
+        throw new com.demo.service.EntityNotFoundException("test", "missing");
+    }
+
+    @GetMapping("/idempotency-key-in-progress")
+    public void idempotencyKeyInProgress() {
+        throw new com.demo.service.IdempotencyKeyInProgressException();
+    }
+
+    @GetMapping("/idempotency-response-unavailable")
+    public void idempotencyResponseUnavailable() {
+        throw new com.demo.service.IdempotencyResponseUnavailableException();
+    }
+
     @GetMapping("/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();
@@ -0,0 +1,116 @@
+package com.demo.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Test class for the {@link ETagUtil} utility class.
+ */
+class ETagUtilTest {
+
+    @Test
+    void parseVersionReadsStrongETag() {
+        assertThat(ETagUtil.parseVersion("\"p1-3\"", "p1")).contains(3L);
+        assertThat(ETagUtil.parseVersion("  \"p1-42\" ", "p1")).contains(42L);
+    }
+
+    @Test
+    void parseVersionReadsETagOfBinaryRepresentation() {
+        assertThat(ETagUtil.parseVersion("\"p1-3+cbor\"", "p1")).contains(3L);
+        assertThat(ETagUtil.parseVersion("\"p1-3+x-jackson-smile\"", "p1")).contains(3L);
+    }
+
+    @Test
+    void parseVersionRejectsWeakETag() {
+        assertThat(ETagUtil.parseVersion("W/\"p1-3\"", "p1")).isEmpty();
+    }
+
+    @Test
+    void parseVersionRejectsGarbage() {
+        assertThat(ETagUtil.parseVersion("\"p2-3\"", "p1")).isEmpty();
+        assertThat(ETagUtil.parseVersion("p1-3", "p1")).isEmpty();
+        assertThat(ETagUtil.parseVersion("\"p1-\"", "p1")).isEmpty();
+        assertThat(ETagUtil.parseVersion("\"p1-three\"", "p1")).isEmpty();
+        assertThat(ETagUtil.parseVersion("\"p1-+cbor\"", "p1")).isEmpty();
+        assertThat(ETagUtil.parseVersion("\"p1-99999999999999999999\"", "p1")).isEmpty();
+        assertThat(ETagUtil.parseVersion("", "p1")).isEmpty();
+    }
+
+    @Test
+    void isNotModifiedComparesWeakly() {
+        assertThat(ETagUtil.isNotModified("\"p1-3\"", "\"p1-3\"")).isTrue();
+        assertThat(ETagUtil.isNotModified("W/\"abc\"", "\"abc\"")).isTrue();
+        assertThat(ETagUtil.isNotModified("\"abc\"", "W/\"abc\"")).isTrue();
+        assertThat(ETagUtil.isNotModified("\"p1-2\"", "\"p1-3\"")).isFalse();
+    }
+
+    @Test
+    void isNotModifiedMatchesAnyETagOfList() {
+        assertThat(ETagUtil.isNotModified("\"p1-1\", W/\"p1-2\" ,\"p1-3\"", "\"p1-2\"")).isTrue();
+        assertThat(ETagUtil.isNotModified("\"p1-1\", \"p1-2\"", "\"p1-3\"")).isFalse();
+    }
+
+    @Test
+    void isNotModifiedMatchesWildcard() {
+        assertThat(ETagUtil.isNotModified("*", "\"p1-3\"")).isTrue();
+        assertThat(ETagUtil.isNotModified("\"p1-1\", *", "W/\"abc\"")).isTrue();
+    }
+
+    @Test
+    void isNotModifiedIgnoresMissingHeader() {
+        assertThat(ETagUtil.isNotModified(null, "\"p1-3\"")).isFalse();
+        assertThat(ETagUtil.isNotModified(" ", "\"p1-3\"")).isFalse();
+    }
+
+    @Test
+    void strongETagDependsOnNegotiatedRepresentation() {
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting(null))).isEqualTo("\"p1-3\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("*/*"))).isEqualTo("\"p1-3\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("application/json"))).isEqualTo("\"p1-3\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("application/cbor"))).isEqualTo("\"p1-3+cbor\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("application/x-jackson-smile"))).isEqualTo("\"p1-3+x-jackson-smile\"");
+    }
+
+    @Test
+    void strongETagFollowsPreferredRepresentation() {
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("application/json;q=0.5, application/cbor"))).isEqualTo("\"p1-3+cbor\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("application/cbor;q=0.5, application/json"))).isEqualTo("\"p1-3\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("text/html, application/cbor;q=0.9"))).isEqualTo("\"p1-3+cbor\"");
+    }
+
+    @Test
+    void strongETagFallsBackToJson() {
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("text/html"))).isEqualTo("\"p1-3\"");
+        assertThat(ETagUtil.strongETag("p1", 3L, requestAccepting("not a media type"))).isEqualTo("\"p1-3\"");
+        assertThat(ETagUtil.strongETag("p1", null, requestAccepting(null))).isEqualTo("\"p1-0\"");
+    }
+
+    @Test
+    void weakETagDependsOnQueryAndRepresentation() {
+        MockHttpServletRequest firstPage = requestAccepting(null);
+        firstPage.setQueryString("page=0");
+        MockHttpServletRequest secondPage = requestAccepting(null);
+        secondPage.setQueryString("page=1");
+        MockHttpServletRequest firstPageInCbor = requestAccepting("application/cbor");
+        firstPageInCbor.setQueryString("page=0");
+
+        String etag = ETagUtil.weakETag("5-1000", firstPage);
+
+        assertThat(etag).startsWith("W/\"").endsWith("\"");
+        assertThat(ETagUtil.weakETag("5-1000", firstPage)).isEqualTo(etag);
+        assertThat(ETagUtil.weakETag("6-1000", firstPage)).isNotEqualTo(etag);
+        assertThat(ETagUtil.weakETag("5-1000", secondPage)).isNotEqualTo(etag);
+        assertThat(ETagUtil.weakETag("5-1000", firstPageInCbor)).isNotEqualTo(etag);
+    }
+
+    private static MockHttpServletRequest requestAccepting(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+const zlib = require('zlib');
+const { Compilation, sources } = require('webpack');
+
+const PLUGIN_NAME = 'PrecompressPlugin';
+
+/**
+ * Emits gzip (.gz) and Brotli (.br) variants of the text assets, at the highest compression levels, once per build.
+ * The server sends them as is to the browsers accepting them, instead of compressing the bundle on every request.
+ */
+class PrecompressPlugin {
+  constructor({ test = /\.(js|css|html|json|svg|txt|webapp)$/, threshold = 1024 } = {}) {
+    this.test = test;
+    this.threshold = threshold;
+  }
+
+  apply(compiler) {
+    compiler.hooks.thisCompilation.tap(PLUGIN_NAME, compilation => {
+      compilation.hooks.processAssets.tap({ name: PLUGIN_NAME, stage: Compilation.PROCESS_ASSETS_STAGE_OPTIMIZE_TRANSFER }, assets => {
+        for (const [name, asset] of Object.entries(assets)) {
+          if (!this.test.test(name)) {
+            continue;
+          }
+          const content = asset.buffer();
+          if (content.length < this.threshold) {
+            continue;
+          }
+          this.emitIfSmaller(compilation, `${name}.gz`, content, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+          this.emitIfSmaller(
+            compilation,
+            `${name}.br`,
+            content,
+            zlib.brotliCompressSync(content, {
+              params: {
+                [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+              },
+            })
+          );
+        }
+      });
+    });
+  }
+
+  emitIfSmaller(compilation, name, content, compressed) {
+    if (compressed.length < content.length) {
+      compilation.emitAsset(name, new sources.RawSource(compressed));
+    }
+  }
+}
+
+module.exports = PrecompressPlugin;